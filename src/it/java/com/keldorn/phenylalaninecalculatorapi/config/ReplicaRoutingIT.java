@@ -0,0 +1,141 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.BaseIntegrationTest;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.mysql.MySQLContainer;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Runs the application against a primary and a separate replica instance. The two are not replicating, so the
+ * default lag query reports the replica as in sync, and lag is simulated by swapping the lag query.
+ */
+class ReplicaRoutingIT extends BaseIntegrationTest {
+
+    private static final String DEFAULT_LAG_QUERY = new ReplicaDataSourceProperties().getLagQuery();
+    private static final long WRITER_ID = 1_001L;
+    private static final long READER_ID = 1_002L;
+
+    static final MySQLContainer replica = new MySQLContainer("mysql:9.6.0")
+            .withDatabaseName("phenylalanine")
+            .withUsername("test_user")
+            .withPassword("test_pass");
+
+    static {
+        replica.start();
+        migrate(replica);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReplicaDataSourceProperties replicaProperties;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private String primaryServer;
+    private String replicaServer;
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+        registry.add("app.datasource.replica.lag-check-interval", () -> "1h");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        primaryServer = readWrite.execute(_ -> currentServer());
+        replicaServer = new JdbcTemplate(dataSource(replica)).queryForObject("SELECT @@server_uuid", String.class);
+        lagMonitor.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaProperties.setLagQuery(DEFAULT_LAG_QUERY);
+        lagMonitor.refresh();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_whenReplicaIsInSync() {
+        Assertions.assertThat(primaryServer).isNotEqualTo(replicaServer);
+        Assertions.assertThat(lagMonitor.isHealthy()).isTrue();
+        Assertions.assertThat(readOnly.execute(_ -> currentServer())).isEqualTo(replicaServer);
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenReplicaLagsBehind() {
+        replicaProperties.setLagQuery("SELECT 60 AS " + replicaProperties.getLagColumn());
+        lagMonitor.refresh();
+        Assertions.assertThat(lagMonitor.isHealthy()).isFalse();
+        Assertions.assertThat(readOnly.execute(_ -> currentServer())).isEqualTo(primaryServer);
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenReplicationIsBroken() {
+        replicaProperties.setLagQuery("SELECT NULL AS " + replicaProperties.getLagColumn());
+        lagMonitor.refresh();
+        Assertions.assertThat(lagMonitor.isHealthy()).isFalse();
+        Assertions.assertThat(readOnly.execute(_ -> currentServer())).isEqualTo(primaryServer);
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_forUserThatJustWrote() {
+        UserContext.runAs(WRITER_ID, () -> readWrite.execute(_ -> jdbcTemplate.update("DO 1")));
+        Assertions.assertThat(UserContext.runAs(WRITER_ID, () -> readOnly.execute(_ -> currentServer())))
+                .isEqualTo(primaryServer);
+        Assertions.assertThat(UserContext.runAs(READER_ID, () -> readOnly.execute(_ -> currentServer())))
+                .isEqualTo(replicaServer);
+    }
+
+    private String currentServer() {
+        return jdbcTemplate.queryForObject("SELECT @@server_uuid", String.class);
+    }
+
+    private static DataSource dataSource(MySQLContainer container) {
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    private static void migrate(MySQLContainer container) {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource(container));
+        liquibase.setChangeLog("classpath:db/changelog/test-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException e) {
+            throw new IllegalStateException("Could not migrate the replica", e);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.BaseIntegrationTest;
+import com.keldorn.phenylalaninecalculatorapi.annotation.DirtyTest;
+import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.FoodConsumptionRequest;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardRebalanceService;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardResolver;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.mysql.MySQLContainer;
+
+/**
+ * Runs the application against the primary and one shard instance, and moves the bucket of the test user between
+ * them.
+ */
+@DirtyTest
+class ShardingIT extends BaseIntegrationTest {
+
+    private static final String SHARD_ID = "shard-1";
+    private static final long USER_ID = 1L;
+    private static final long FOOD_ID = 1L;
+    private static final List<String> USER_TABLES = List.of("daily_intake", "food_consumption",
+            "food_consumption_archive", "refresh_tokens");
+
+    static final MySQLContainer shard = new MySQLContainer("mysql:9.6.0")
+            .withDatabaseName("phenylalanine")
+            .withUsername("test_user")
+            .withPassword("test_pass");
+
+    static {
+        shard.start();
+    }
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @Autowired
+    private ShardRebalanceService shardRebalanceService;
+
+    private JdbcTemplate primaryJdbcTemplate;
+    private JdbcTemplate shardJdbcTemplate;
+    private int bucket;
+
+    @DynamicPropertySource
+    static void configureShard(DynamicPropertyRegistry registry) {
+        registry.add("app.sharding.enabled", () -> "true");
+        registry.add("app.sharding.refresh-interval", () -> "1h");
+        registry.add("app.sharding.change-log", () -> "db/changelog/master.yaml");
+        registry.add("app.sharding.shards." + SHARD_ID + ".index", () -> "1");
+        registry.add("app.sharding.shards." + SHARD_ID + ".url", shard::getJdbcUrl);
+        registry.add("app.sharding.shards." + SHARD_ID + ".username", shard::getUsername);
+        registry.add("app.sharding.shards." + SHARD_ID + ".password", shard::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        primaryJdbcTemplate = new JdbcTemplate(shardDataSources.get(ShardingProperties.PRIMARY_SHARD));
+        shardJdbcTemplate = new JdbcTemplate(shardDataSources.get(SHARD_ID));
+        bucket = shardResolver.bucketFor(USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbcTemplate.update("DELETE FROM shard_map");
+        shardResolver.refresh();
+        USER_TABLES.forEach(table -> shardJdbcTemplate.update("DELETE FROM " + table));
+    }
+
+    @Test
+    void moveBucket_shouldCopyUserRowsToShard() {
+        shardRebalanceService.moveBucket(bucket, SHARD_ID);
+
+        Assertions.assertThat(shardResolver.shardFor(USER_ID)).isEqualTo(SHARD_ID);
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "daily_intake")).isEqualTo(1);
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "food_consumption")).isEqualTo(1);
+    }
+
+    @Test
+    void userShardedRequests_shouldWriteToShard_afterBucketMove() {
+        shardRebalanceService.moveBucket(bucket, SHARD_ID);
+
+        restTestClient.post()
+                .uri(path(ApiRoutes.FOOD_CONSUMPTION_PATH_BY_ID, FOOD_ID))
+                .headers(withBearer(getAuthToken().accessToken()))
+                .body(new FoodConsumptionRequest(BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isCreated();
+
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "food_consumption")).isEqualTo(2);
+        Assertions.assertThat(countUserRows(primaryJdbcTemplate, "food_consumption")).isEqualTo(1);
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "refresh_tokens")).isEqualTo(1);
+        Assertions.assertThat(countUserRows(primaryJdbcTemplate, "refresh_tokens")).isZero();
+    }
+
+    @Test
+    void purgeBucket_shouldDeleteUserRowsFromSource_whenShardHasThem() {
+        shardRebalanceService.moveBucket(bucket, SHARD_ID);
+
+        shardRebalanceService.purgeBucket(bucket, ShardingProperties.PRIMARY_SHARD);
+
+        USER_TABLES.forEach(table -> Assertions.assertThat(countUserRows(primaryJdbcTemplate, table)).isZero());
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "daily_intake")).isEqualTo(1);
+        Assertions.assertThat(countUserRows(shardJdbcTemplate, "food_consumption")).isEqualTo(1);
+    }
+
+    @Test
+    void purgeBucket_shouldKeepSourceRows_whenShardIsMissingSome() {
+        shardRebalanceService.moveBucket(bucket, SHARD_ID);
+        primaryJdbcTemplate.update("INSERT INTO daily_intake (daily_intake_id, date, total_phenylalanine, user_id) "
+                + "VALUES (500, '2026-01-02', 10, ?)", USER_ID);
+
+        Assertions.assertThatThrownBy(
+                        () -> shardRebalanceService.purgeBucket(bucket, ShardingProperties.PRIMARY_SHARD))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("daily_intake");
+
+        Assertions.assertThat(countUserRows(primaryJdbcTemplate, "daily_intake")).isEqualTo(2);
+        Assertions.assertThat(countUserRows(primaryJdbcTemplate, "food_consumption")).isEqualTo(1);
+    }
+
+    private static int countUserRows(JdbcTemplate jdbcTemplate, String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?",
+                Integer.class, USER_ID);
+        return count == null ? 0 : count;
+    }
+
+}
@@ -5,6 +5,7 @@ import com.keldorn.phenylalaninecalculatorapi.annotation.DirtyTest;
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiPaths;
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiResponses;
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.RefreshToken;
 import com.keldorn.phenylalaninecalculatorapi.dto.auth.AuthPasswordChangeRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.auth.AuthRegisterRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.auth.AuthRequest;
@@ -267,7 +268,7 @@ class AuthControllerIT extends BaseIntegrationTest {
         Assertions.assertThat(refreshTokenCookie).isNotNull();
         String refreshToken = refreshTokenCookie.getValue();
 
-        Assertions.assertThat(refreshTokenRepository.findByToken(refreshToken)).isPresent();
+        Assertions.assertThat(refreshTokenRepository.findByTokenHash(RefreshToken.hash(refreshToken))).isPresent();
 
         var logoutResult = restTestClient.post()
                 .uri(path(ApiRoutes.AUTH_PATH, ApiPaths.LOGOUT))
@@ -282,7 +283,7 @@ class AuthControllerIT extends BaseIntegrationTest {
         Assertions.assertThat(cleanCookie.getMaxAge().isZero()).isTrue();
         Assertions.assertThat(cleanCookie.getValue()).isEmpty();
 
-        Assertions.assertThat(refreshTokenRepository.findByToken(refreshToken)).isEmpty();
+        Assertions.assertThat(refreshTokenRepository.findByTokenHash(RefreshToken.hash(refreshToken))).isEmpty();
 
         restTestClient.post()
                 .uri(path(ApiRoutes.AUTH_PATH, ApiPaths.REFRESH))
@@ -0,0 +1,164 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.mysql.MySQLContainer;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Measures the insert throughput of food consumptions against a MySQL container migrated with the test changelog,
+ * writing {@value #ROWS} rows per operation in one transaction: one statement per row, the way Hibernate wrote them
+ * with identity ids, against JDBC batches of {@value #BATCH_SIZE} rows, the configured
+ * {@code hibernate.jdbc.batch_size}, with and without the {@code rewriteBatchedStatements} driver flag. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec@benchmark}; Docker has to be available.
+ * <p>
+ * {@code FoodConsumptionRepositoryTests.saveAll_shouldBatchInserts} guards that the repository keeps batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FoodConsumptionBatchInsertBenchmark {
+
+    private static final int ROWS = 200;
+    private static final int BATCH_SIZE = 50;
+    private static final long USER_ID = 1L;
+    private static final long FOOD_ID = 1L;
+    private static final Timestamp CONSUMED_AT = Timestamp.valueOf(LocalDateTime.of(2026, 3, 15, 12, 0));
+    private static final String INSERT = """
+            INSERT INTO food_consumption (amount, phenylalanine_amount, consumed_at, food_id, user_id, food_name,
+                                          food_phenylalanine)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private MySQLContainer mySQLContainer;
+    private Connection connection;
+    private Connection rewritingConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySQLContainer = new MySQLContainer("mysql:9.6.0")
+                .withDatabaseName("phenylalanine")
+                .withUsername("test_user")
+                .withPassword("test_pass");
+        mySQLContainer.start();
+        migrate();
+        connection = connect(false);
+        rewritingConnection = connect(true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement("DELETE FROM food_consumption WHERE consumed_at = ?")) {
+            statement.setTimestamp(1, CONSUMED_AT);
+            statement.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        rewritingConnection.close();
+        mySQLContainer.stop();
+    }
+
+    @Benchmark
+    public int rowByRow() throws SQLException {
+        int inserted = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int row = 0; row < ROWS; row++) {
+                bind(statement, row);
+                inserted += statement.executeUpdate();
+            }
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    @Benchmark
+    public int batched() throws SQLException {
+        return insertBatched(connection);
+    }
+
+    @Benchmark
+    public int batchedRewritten() throws SQLException {
+        return insertBatched(rewritingConnection);
+    }
+
+    private static int insertBatched(Connection connection) throws SQLException {
+        int inserted = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int row = 0; row < ROWS; row++) {
+                bind(statement, row);
+                statement.addBatch();
+                if ((row + 1) % BATCH_SIZE == 0) {
+                    inserted += statement.executeBatch().length;
+                }
+            }
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    private static void bind(PreparedStatement statement, int row) throws SQLException {
+        BigDecimal amount = BigDecimal.valueOf(row % 100 + 1);
+        statement.setBigDecimal(1, amount);
+        statement.setBigDecimal(2, amount.multiply(BigDecimal.TEN));
+        statement.setTimestamp(3, CONSUMED_AT);
+        statement.setLong(4, FOOD_ID);
+        statement.setLong(5, USER_ID);
+        statement.setString(6, "testFood");
+        statement.setBigDecimal(7, BigDecimal.TEN);
+    }
+
+    private Connection connect(boolean rewriteBatchedStatements) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", mySQLContainer.getUsername());
+        properties.setProperty("password", mySQLContainer.getPassword());
+        properties.setProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
+        Connection connection = DriverManager.getConnection(mySQLContainer.getJdbcUrl(), properties);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private void migrate() {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(mySQLContainer.getJdbcUrl(), mySQLContainer.getUsername(),
+                mySQLContainer.getPassword()));
+        liquibase.setChangeLog("classpath:db/changelog/test-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException e) {
+            throw new IllegalStateException("Could not migrate the benchmark database", e);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.JwtProperties;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.Role;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
+import com.keldorn.phenylalaninecalculatorapi.domain.enums.Roles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares verifying an access token with jjwt, the way {@code JwtAuthFilter} did before, against
+ * {@link AccessTokenVerifier}. Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark}; the profile adds
+ * {@code -prof gc} so allocations per operation are reported next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenVerifierBenchmark {
+
+    private static final String SECRET =
+            "VGhpc0lzQVNlY3JldEtleUZvclRlc3RpbmdUaGF0SXNMb25nRW5vdWdoMTIzNDU2";
+
+    private JwtService jwtService;
+    private AccessTokenVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.getSecret().setAccess(SECRET);
+        properties.getSecret().setRefresh(SECRET);
+        properties.getAccess().setExpirationTime(Duration.ofHours(1));
+        properties.getAccess().setVerifiedCacheSize(0);
+        properties.getRefresh().setExpirationTime(Duration.ofDays(1));
+        jwtService = new JwtService(properties, new SimpleMeterRegistry());
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        verifier = new AccessTokenVerifier(key);
+        User user = User.builder()
+                .userId(42L)
+                .username("benchmark-user")
+                .roles(List.of(Role.builder().id(1L).name(Roles.ROLE_USER).build()))
+                .build();
+        token = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Object jjwt() {
+        Claims claims = jwtService.validateAndParseAccessToken(token);
+        List<SimpleGrantedAuthority> authorities = jwtService.extractRoles(claims).stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new JwtService.AccessPrincipal(jwtService.extractUserId(claims), jwtService.extractUsername(claims),
+                authorities, claims.getExpiration().toInstant());
+    }
+
+    @Benchmark
+    public Object accessTokenVerifier() {
+        return verifier.verify(token);
+    }
+
+}
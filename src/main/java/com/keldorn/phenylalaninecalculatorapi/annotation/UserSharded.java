@@ -0,0 +1,16 @@
+package com.keldorn.phenylalaninecalculatorapi.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service whose transactions only touch per-user tables. When sharding is enabled, transactions started
+ * by such a service run on the shard that owns the current user.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UserSharded {}
@@ -0,0 +1,176 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager.CacheEntry;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Inspects and tunes the caches of this node at {@code /actuator/cacheadmin}: statistics per cache, its hottest
+ * and heaviest keys, evicting a key or every entry of a user, and changing the heap budget and TTLs without a
+ * redeploy. Tuning is node-local and lasts until restart. Every change is logged with the caller.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "cacheadmin")
+public class CacheAdminEndpoint {
+
+    static final int DEFAULT_KEY_LIMIT = 20;
+
+    private final CoherentCacheManager cacheManager;
+
+    @ReadOperation
+    public Map<String, CacheDescriptor> caches() {
+        Map<String, CacheDescriptor> caches = new TreeMap<>();
+        cacheManager.getCacheNames().forEach(name -> caches.put(name, describe(name)));
+        return caches;
+    }
+
+    @ReadOperation
+    public @Nullable CacheDetails cache(@Selector String name, @OptionalParameter @Nullable Integer limit) {
+        if (!cacheManager.getCacheNames().contains(name)) {
+            return null;
+        }
+        int keyLimit = limit != null ? limit : DEFAULT_KEY_LIMIT;
+        List<KeyDescriptor> hottest = cacheManager.hottest(name, keyLimit).stream()
+                .map(entry -> describe(name, entry))
+                .toList();
+        List<KeyDescriptor> heaviest = cacheManager.hottest(name, Integer.MAX_VALUE).stream()
+                .map(entry -> describe(name, entry))
+                .sorted(Comparator.comparingLong(KeyDescriptor::weight).reversed())
+                .limit(keyLimit)
+                .toList();
+        return new CacheDetails(describe(name), hottest, heaviest);
+    }
+
+    @WriteOperation
+    public CacheDescriptor tune(SecurityContext securityContext, @Selector String name,
+            @OptionalParameter @Nullable DataSize heapBudget, @OptionalParameter @Nullable Duration ttl,
+            @OptionalParameter @Nullable Duration softTtl, @OptionalParameter @Nullable Duration staleIfError) {
+        requireCache(name);
+        CachePolicyProperties.Policy current = cacheManager.getPolicy(name);
+        CachePolicyProperties.Policy tuned = new CachePolicyProperties.Policy();
+        tuned.setHeapBudget(heapBudget != null ? heapBudget : current.getHeapBudget());
+        tuned.setTtl(ttl != null ? ttl : current.getTtl());
+        tuned.setSoftTtl(softTtl != null ? softTtl : current.getSoftTtl());
+        tuned.setStaleIfError(staleIfError != null ? staleIfError : current.getStaleIfError());
+        if (tuned.getSoftTtl() != null && tuned.getSoftTtl().compareTo(tuned.getTtl()) >= 0) {
+            throw new InvalidEndpointRequestException("Soft TTL must be shorter than the TTL",
+                    "softTtl " + tuned.getSoftTtl() + " is not shorter than ttl " + tuned.getTtl());
+        }
+        cacheManager.tune(name, tuned);
+        log.info("Cache {} tuned by {}: heap budget {} -> {}, ttl {} -> {}, soft ttl {} -> {}, "
+                + "stale-if-error {} -> {}", name, caller(securityContext), current.getHeapBudget(),
+                tuned.getHeapBudget(), current.getTtl(), tuned.getTtl(), current.getSoftTtl(), tuned.getSoftTtl(),
+                current.getStaleIfError(), tuned.getStaleIfError());
+        return describe(name);
+    }
+
+    /**
+     * Evicts the entry whose key renders as {@code key}, e.g. {@code [12, 7]}, or every entry of {@code user}, the
+     * last element of all cache keys.
+     */
+    @DeleteOperation
+    public EvictionResult evict(SecurityContext securityContext, @Selector String name,
+            @OptionalParameter @Nullable String key, @OptionalParameter @Nullable Long user) {
+        requireCache(name);
+        Predicate<Object> keyFilter;
+        if (key != null) {
+            keyFilter = candidate -> String.valueOf(candidate).equals(key);
+        } else if (user != null) {
+            keyFilter = candidate -> candidate instanceof List<?> elements && !elements.isEmpty()
+                    && user.equals(elements.getLast());
+        } else {
+            throw new InvalidEndpointRequestException("Either key or user is required", "Missing key and user");
+        }
+        int evicted = cacheManager.evictIf(name, keyFilter);
+        log.info("Cache {} evicted by {}: {} entries matching {}", name, caller(securityContext), evicted,
+                key != null ? "key " + key : "user " + user);
+        return new EvictionResult(evicted);
+    }
+
+    private CacheDescriptor describe(String name) {
+        CachePolicyProperties.Policy policy = cacheManager.getPolicy(name);
+        CacheStats stats = CacheStats.empty();
+        long size;
+        long weightedSize = 0;
+        if (nativeCache(name) instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            stats = caffeine.stats();
+            size = caffeine.estimatedSize();
+            weightedSize = caffeine.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+        } else {
+            size = cacheManager.hottest(name, Integer.MAX_VALUE).size();
+        }
+        return new CacheDescriptor(size, weightedSize, policy.getHeapBudget().toString(), policy.getTtl().toString(),
+                policy.getSoftTtl() != null ? policy.getSoftTtl().toString() : null,
+                policy.getStaleIfError() != null ? policy.getStaleIfError().toString() : null, stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount(), stats.evictionWeight(),
+                cacheManager.getGeneration(name));
+    }
+
+    private KeyDescriptor describe(String name, CacheEntry entry) {
+        long weight = nativeCache(name) instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? weightOf(caffeine, entry.key())
+                : 0;
+        return new KeyDescriptor(String.valueOf(entry.key()), weight, entry.age().toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long weightOf(com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine, Object key) {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, ?>) caffeine).policy().eviction()
+                .map(eviction -> (long) eviction.weightOf(key).orElse(0))
+                .orElse(0L);
+    }
+
+    private @Nullable Object nativeCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        return cache != null ? cache.getNativeCache() : null;
+    }
+
+    private void requireCache(String name) {
+        if (!cacheManager.getCacheNames().contains(name)) {
+            throw new InvalidEndpointRequestException("Unknown cache " + name, "Unknown cache " + name);
+        }
+    }
+
+    private static String caller(SecurityContext securityContext) {
+        Principal principal = securityContext.getPrincipal();
+        return principal != null ? principal.getName() : "anonymous";
+    }
+
+    public record CacheDescriptor(long size, long weightedSize, String heapBudget, String ttl,
+                                  @Nullable String softTtl, @Nullable String staleIfError, long hitCount,
+                                  long missCount, double hitRate, long evictionCount, long evictionWeight,
+                                  long generation) {}
+
+    public record KeyDescriptor(String key, long weight, String age) {}
+
+    public record CacheDetails(CacheDescriptor cache, List<KeyDescriptor> hottest, List<KeyDescriptor> heaviest) {}
+
+    public record EvictionResult(int evicted) {}
+
+}
@@ -0,0 +1,26 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.coherence")
+public class CacheCoherenceProperties {
+
+    private boolean enabled = true;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private int batchSize = 500;
+    /**
+     * How long a missing change-log id is waited for before it is treated as a rolled back transaction.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(10);
+    private Duration retention = Duration.ofHours(1);
+
+}
@@ -1,28 +1,117 @@
 package com.keldorn.phenylalaninecalculatorapi.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.keldorn.phenylalaninecalculatorapi.filter.ResponseCacheFilter;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
+import com.keldorn.phenylalaninecalculatorapi.utils.RetainedSizeEstimator;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import org.springframework.cache.CacheManager;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The transaction advice is ordered outside the caching advice, so evictions are published inside the transaction
+ * of the mutation.
+ */
 @Configuration
-@EnableCaching
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE)
+@EnableTransactionManagement(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfig {
 
-    private final String[] cacheNames = {"foodTypePages", "foodPages"};
+    private final String[] cacheNames = {"foodTypePages", "foodPages", "foodTypes", "foods", "foodNutrients"};
 
     @Bean
-    public CacheManager cacheManager() {
+    public CoherentCacheManager cacheManager(CachePolicyProperties cachePolicyProperties,
+            CacheCoherenceProperties cacheCoherenceProperties, CacheInvalidationRepository cacheInvalidationRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(cacheNames);
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(1000)
-                .expireAfterWrite(1, TimeUnit.HOURS)
-                .recordStats());
-        return cacheManager;
+        for (String cacheName : cacheNames) {
+            CachePolicyProperties.Policy policy = cachePolicyProperties.getPolicy(cacheName);
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                    .initialCapacity(100)
+                    .maximumWeight(policy.getHeapBudget().toBytes())
+                    .weigher(CacheConfig::weigh)
+                    .expireAfterWrite(policy.getRetention())
+                    .recordStats()
+                    .build());
+        }
+        TransactionTemplate reloadTransaction = new TransactionTemplate(transactionManager);
+        reloadTransaction.setName("cache-reload");
+        reloadTransaction.setReadOnly(true);
+        reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(cachePolicyProperties.getRefreshThreads(),
+                cachePolicyProperties.getRefreshThreads(), 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(cachePolicyProperties.getRefreshQueueCapacity()),
+                Thread.ofPlatform().name("cache-refresh-", 0).daemon().factory());
+        return new CoherentCacheManager(cacheManager, cachePolicyProperties, cacheInvalidationRepository,
+                reloadTransaction, refreshExecutor, meterRegistry, cacheCoherenceProperties.isEnabled());
+    }
+
+    /**
+     * Boot only binds metrics to plain Caffeine caches, so they are bound here through the coherent wrapper. The
+     * estimated heap used by each cache is published next to its budget as {@code cache.heap.used} and
+     * {@code cache.heap.budget}.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(CoherentCacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null
+                    && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                CaffeineCacheMetrics.monitor(registry, nativeCache, name, "cache.manager", "cacheManager");
+                nativeCache.policy().eviction().ifPresent(eviction -> {
+                    Gauge.builder("cache.heap.used", eviction, e -> e.weightedSize().orElse(0))
+                            .description("Estimated heap retained by the entries of the cache")
+                            .baseUnit(BaseUnits.BYTES)
+                            .tag("cache", name)
+                            .register(registry);
+                    Gauge.builder("cache.heap.budget", eviction, Policy.Eviction::getMaximum)
+                            .description("Heap budget of the cache, entries are evicted above it")
+                            .baseUnit(BaseUnits.BYTES)
+                            .tag("cache", name)
+                            .register(registry);
+                });
+            }
+        });
+    }
+
+    /**
+     * Registered with the lowest precedence so it runs after the security filter chain has authenticated the
+     * request.
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            ResponseCacheProperties responseCacheProperties, CoherentCacheManager cacheManager,
+            HotKeyService hotKeyService, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(responseCacheProperties, cacheManager, hotKeyService, meterRegistry));
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                RetainedSizeEstimator.estimate(key) + RetainedSizeEstimator.estimate(value));
     }
 
 }
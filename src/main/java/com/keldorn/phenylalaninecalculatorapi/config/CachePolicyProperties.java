@@ -0,0 +1,57 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+    private int refreshThreads = 2;
+    private int refreshQueueCapacity = 100;
+
+    public Policy getPolicy(String cacheName) {
+        return policies.getOrDefault(cacheName, Policy.DEFAULT);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        private static final Policy DEFAULT = new Policy();
+
+        private Duration ttl = Duration.ofHours(1);
+        /**
+         * Upper bound of the estimated heap retained by the keys and values of the cache, least recently used
+         * entries are evicted above it.
+         */
+        private DataSize heapBudget = DataSize.ofMegabytes(16);
+        /**
+         * Age after which an entry is still served but reloaded in the background. Disabled when not set.
+         */
+        private @Nullable Duration softTtl;
+        /**
+         * How long past the TTL an entry is kept and served when reloading it fails on the database. Disabled when
+         * not set.
+         */
+        private @Nullable Duration staleIfError;
+
+        public Duration getRetention() {
+            return staleIfError != null ? ttl.plus(staleIfError) : ttl;
+        }
+
+    }
+
+}
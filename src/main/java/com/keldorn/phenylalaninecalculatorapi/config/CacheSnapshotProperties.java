@@ -0,0 +1,30 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.nio.file.Path;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.snapshot")
+public class CacheSnapshotProperties {
+
+    private boolean enabled = false;
+    /**
+     * Snapshot file. Its directory is created readable by the application user only.
+     */
+    private Path file = Path.of(System.getProperty("user.home"), ".phenylalanine-calculator", "cache-snapshot.bin");
+    private int maxEntriesPerCache = 1000;
+    /**
+     * Base64 HMAC-SHA256 key the snapshot is signed with. Snapshots are neither written nor restored without it,
+     * and a snapshot whose signature does not match is discarded.
+     */
+    private @Nullable String signingKey;
+
+}
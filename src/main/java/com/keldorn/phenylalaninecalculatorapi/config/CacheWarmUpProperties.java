@@ -0,0 +1,30 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.warm-up")
+public class CacheWarmUpProperties {
+
+    private boolean enabled = true;
+    /**
+     * Upper bound of the warm-up, the application reports ready once it is reached even if warm-up is not done.
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+    private int hotKeyLimit = 200;
+    /**
+     * Number of times the hot requests are replayed over HTTP to get the request path compiled by the JIT.
+     */
+    private int replayIterations = 20;
+    private int maxTrackedKeys = 10_000;
+    private Duration retention = Duration.ofDays(7);
+
+}
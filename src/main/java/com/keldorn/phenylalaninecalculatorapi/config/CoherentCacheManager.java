@@ -0,0 +1,617 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Keeps node-local caches coherent across the cluster. Every eviction is appended to the {@code cache_invalidation}
+ * change-log in the transaction of the mutation, so it becomes visible to other nodes exactly when the mutation
+ * does, and is replayed there by {@link com.keldorn.phenylalaninecalculatorapi.service.CacheInvalidationTailer}.
+ * Locally the entry is evicted right away and once more after commit, so a read racing the transaction cannot
+ * keep the old value. Single-key evictions carry the key when it has a portable form, ids and lists of ids, and
+ * remote nodes evict just that entry. Other keys hold request objects that cannot be rebuilt on another node, so
+ * their evictions, like {@link #evictIf} and clears, clear the whole cache remotely. That only costs reloads.
+ * <p>
+ * Loads through {@code @Cacheable(sync = true)} are single-flight per key: the first caller runs the loader and
+ * concurrent callers for the same key wait for its result. Those waits are recorded as
+ * {@code cache.coalesced.waits}.
+ * <p>
+ * Entries are stamped with their load time and follow the {@link CachePolicyProperties.Policy} of their cache:
+ * past the soft TTL they are served while a reload runs on the refresh executor, past the TTL they are reloaded
+ * by the caller, and if that reload fails on the database they keep being served for the stale-if-error window.
+ * Reloads run as the requesting user in a read-only transaction of their own.
+ */
+@Slf4j
+public class CoherentCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final CachePolicyProperties cachePolicyProperties;
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final TransactionOperations reloadTransaction;
+    private final ExecutorService refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private final boolean enabled;
+    private final Map<String, CoherentCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<@Nullable Object>> externalCaches = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CoherentCacheManager(CacheManager delegate, CachePolicyProperties cachePolicyProperties,
+            CacheInvalidationRepository cacheInvalidationRepository, TransactionOperations reloadTransaction,
+            ExecutorService refreshExecutor, MeterRegistry meterRegistry, boolean enabled) {
+        this.delegate = delegate;
+        this.cachePolicyProperties = cachePolicyProperties;
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.reloadTransaction = reloadTransaction;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public @Nullable Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, _ -> new CoherentCache(cache, cachePolicyProperties.getPolicy(name)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Clears a cache on this node only, used to apply invalidations published by other nodes.
+     */
+    public void clearLocally(String name) {
+        Consumer<@Nullable Object> externalCache = externalCaches.get(name);
+        if (externalCache != null) {
+            externalCache.accept(null);
+        } else if (getCache(name) instanceof CoherentCache cache) {
+            cache.clearLocally();
+        }
+    }
+
+    /**
+     * Evicts a key published by another node on this node only. A {@code null} or unreadable key clears the
+     * whole cache.
+     */
+    public void evictLocally(String name, @Nullable String cacheKey) {
+        Optional<Object> key = cacheKey != null ? PortableKey.decode(cacheKey) : Optional.empty();
+        Consumer<@Nullable Object> externalCache = externalCaches.get(name);
+        if (externalCache != null) {
+            externalCache.accept(key.orElse(null));
+        } else if (getCache(name) instanceof CoherentCache cache) {
+            key.ifPresentOrElse(cache::evictLocally, cache::clearLocally);
+        }
+    }
+
+    /**
+     * Registers a cache kept outside this manager, so invalidations published for it reach it on every node. The
+     * handler evicts the given key on this node, or everything when the key is {@code null}.
+     */
+    public void registerExternalCache(String name, Consumer<@Nullable Object> evictLocally) {
+        externalCaches.put(name, evictLocally);
+    }
+
+    /**
+     * Publishes the eviction of a key of an external cache for the other nodes, in the current transaction. The
+     * caller evicts it on this node. A key without a portable form clears the cache remotely.
+     */
+    public void publishEviction(String name, Object key) {
+        if (!enabled) {
+            return;
+        }
+        String cacheKey = PortableKey.encode(key);
+        cacheInvalidationRepository.append(name, cacheKey, nodeId);
+        log.debug("Published invalidation of cache {} for key {}", name, cacheKey);
+    }
+
+    /**
+     * Returns a counter that changes whenever the cache is evicted or cleared, on this node or through a remote
+     * invalidation. Data derived from the cache is current as long as the generation it was read at is.
+     */
+    public long getGeneration(String name) {
+        return getCache(name) instanceof CoherentCache cache ? cache.generation.get() : -1;
+    }
+
+    /**
+     * Returns the policy the cache currently follows, which {@link #tune} may have changed since startup.
+     */
+    public CachePolicyProperties.Policy getPolicy(String name) {
+        return getCache(name) instanceof CoherentCache cache ? cache.policy : cachePolicyProperties.getPolicy(name);
+    }
+
+    /**
+     * Replaces the policy of a cache on this node, resizing the Caffeine cache to the new heap budget and
+     * retention. Entries already loaded are judged by the new TTLs from their next read on.
+     */
+    public void tune(String name, CachePolicyProperties.Policy policy) {
+        if (!(getCache(name) instanceof CoherentCache cache)) {
+            throw new IllegalArgumentException("Unknown cache " + name);
+        }
+        cache.policy = policy;
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            caffeine.policy().eviction().ifPresent(eviction -> eviction.setMaximum(policy.getHeapBudget().toBytes()));
+            caffeine.policy().expireAfterWrite().ifPresent(expiry -> expiry.setExpiresAfter(policy.getRetention()));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries of a cache, the most frequently used first when the cache tracks it.
+     */
+    public List<CacheEntry> hottest(String name, int limit) {
+        if (!(getCache(name) instanceof CoherentCache cache)) {
+            return List.of();
+        }
+        Map<?, ?> entries = cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? caffeine.policy().eviction().<Map<?, ?>>map(eviction -> eviction.hottest(limit))
+                        .orElseGet(caffeine::asMap)
+                : asMap(cache);
+        return entries.entrySet().stream()
+                .filter(entry -> entry.getValue() instanceof CachedValue)
+                .limit(limit)
+                .map(entry -> {
+                    CachedValue cached = (CachedValue) entry.getValue();
+                    return new CacheEntry(entry.getKey(), cached.value(), cached.age());
+                })
+                .toList();
+    }
+
+    /**
+     * Evicts the entries whose key matches and publishes a single invalidation of the cache for the other nodes.
+     *
+     * @return the number of entries evicted on this node
+     */
+    public int evictIf(String name, Predicate<Object> keyFilter) {
+        if (!(getCache(name) instanceof CoherentCache cache)) {
+            return 0;
+        }
+        cache.generation.incrementAndGet();
+        int evicted = 0;
+        for (Object key : asMap(cache).keySet()) {
+            if (keyFilter.test(key) && cache.cache.evictIfPresent(key)) {
+                evicted++;
+            }
+        }
+        publish(cache, null);
+        return evicted;
+    }
+
+    /**
+     * Puts entries loaded elsewhere, keeping their age, unless the cache changed generation since
+     * {@code expectedGeneration}. Entries past the retention of the cache are skipped.
+     *
+     * @return the number of entries restored
+     */
+    public int restore(String name, Collection<CacheEntry> entries, long expectedGeneration) {
+        if (!(getCache(name) instanceof CoherentCache cache)) {
+            return 0;
+        }
+        int restored = 0;
+        for (CacheEntry entry : entries) {
+            if (cache.generation.get() != expectedGeneration) {
+                return restored;
+            }
+            if (entry.age().compareTo(cache.policy.getRetention()) < 0) {
+                cache.cache.put(entry.key(), new CachedValue(entry.value(), System.nanoTime() - entry.age().toNanos()));
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Publishes the eviction of a key, or of the whole cache when {@code key} is {@code null} or not portable.
+     */
+    private void publish(CoherentCache cache, @Nullable Object key) {
+        if (!enabled) {
+            return;
+        }
+        String cacheKey = key != null ? PortableKey.encode(key) : null;
+        cacheInvalidationRepository.append(cache.getName(), cacheKey, nodeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (key != null) {
+                        cache.evictLocally(key);
+                    } else {
+                        cache.clearLocally();
+                    }
+                }
+            });
+        }
+        log.debug("Published invalidation of cache {} for key {}", cache.getName(), cacheKey);
+    }
+
+    private static Map<?, ?> asMap(CoherentCache cache) {
+        return switch (cache.getNativeCache()) {
+            case com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine -> caffeine.asMap();
+            case Map<?, ?> map -> map;
+            default -> Map.of();
+        };
+    }
+
+    private static boolean isDatabaseFailure(@Nullable Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException || cause instanceof TransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record CacheEntry(Object key, @Nullable Object value, Duration age) {
+    }
+
+    /**
+     * Text form of the keys other nodes can rebuild: {@code Long}, {@code Integer} and {@code String} keys, and
+     * lists of {@code Long}, {@code Integer} or {@code null} as built by {@code key = "{#id, ...}"}.
+     */
+    static final class PortableKey {
+
+        private static final int MAX_LENGTH = 255;
+
+        private PortableKey() {
+        }
+
+        static @Nullable String encode(Object key) {
+            String encoded = switch (key) {
+                case String string -> "S" + string;
+                case List<?> list -> {
+                    StringJoiner joiner = new StringJoiner(",", "[", "]");
+                    for (Object element : list) {
+                        String encodedElement = element != null ? encodeNumber(element) : "N";
+                        if (encodedElement == null) {
+                            yield null;
+                        }
+                        joiner.add(encodedElement);
+                    }
+                    yield joiner.toString();
+                }
+                default -> encodeNumber(key);
+            };
+            return encoded != null && encoded.length() <= MAX_LENGTH ? encoded : null;
+        }
+
+        static Optional<Object> decode(String encoded) {
+            try {
+                if (encoded.startsWith("S")) {
+                    return Optional.of(encoded.substring(1));
+                }
+                if (encoded.startsWith("[") && encoded.endsWith("]")) {
+                    String elements = encoded.substring(1, encoded.length() - 1);
+                    if (elements.isEmpty()) {
+                        return Optional.of(Arrays.asList());
+                    }
+                    return Optional.of(Arrays.asList(Arrays.stream(elements.split(",", -1))
+                            .map(element -> element.equals("N") ? null : decodeNumber(element))
+                            .toArray()));
+                }
+                return Optional.of(decodeNumber(encoded));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        private static @Nullable String encodeNumber(Object value) {
+            return switch (value) {
+                case Long number -> "L" + number;
+                case Integer number -> "I" + number;
+                default -> null;
+            };
+        }
+
+        private static Object decodeNumber(String encoded) {
+            if (encoded.startsWith("L")) {
+                return Long.parseLong(encoded.substring(1));
+            }
+            if (encoded.startsWith("I")) {
+                return Integer.parseInt(encoded.substring(1));
+            }
+            throw new IllegalArgumentException("Unknown cache key " + encoded);
+        }
+
+    }
+
+    private record CachedValue(@Nullable Object value, long loadedAt) {
+
+        private Duration age() {
+            return Duration.ofNanos(System.nanoTime() - loadedAt);
+        }
+
+    }
+
+    private class CoherentCache implements Cache {
+
+        private final Cache cache;
+        private volatile CachePolicyProperties.Policy policy;
+        private final Timer coalescedWaits;
+        private final Counter staleServedSoftTtl;
+        private final Counter staleServedError;
+        private final Map<Object, Boolean> loading = new ConcurrentHashMap<>();
+        private final Map<Object, CompletableFuture<CachedValue>> reloads = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+
+        private CoherentCache(Cache cache, CachePolicyProperties.Policy policy) {
+            this.cache = cache;
+            this.policy = policy;
+            this.coalescedWaits = Timer.builder("cache.coalesced.waits")
+                    .description("Time callers waited for a concurrent load of the same key instead of loading it")
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+            this.staleServedSoftTtl = staleServedCounter("soft-ttl");
+            this.staleServedError = staleServedCounter("error");
+        }
+
+        private Counter staleServedCounter(String reason) {
+            return Counter.builder("cache.stale.served")
+                    .description("Number of entries served past their soft TTL or, after a failed reload, their TTL")
+                    .tag("cache", cache.getName())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public @Nullable ValueWrapper get(Object key) {
+            CachedValue cached = lookup(key);
+            if (cached == null || isExpired(cached)) {
+                return null;
+            }
+            return new SimpleValueWrapper(cached.value());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> @Nullable T get(Object key, @Nullable Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: "
+                        + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> @Nullable T get(Object key, Callable<T> valueLoader) {
+            CachedValue cached = lookup(key);
+            if (cached == null) {
+                return (T) load(key, valueLoader).value();
+            }
+            if (isExpired(cached)) {
+                return (T) reloadExpired(key, valueLoader, cached);
+            }
+            Duration softTtl = policy.getSoftTtl();
+            if (softTtl != null && cached.age().compareTo(softTtl) >= 0) {
+                refreshAhead(key, valueLoader);
+                staleServedSoftTtl.increment();
+            }
+            return (T) cached.value();
+        }
+
+        @Override
+        public void put(Object key, @Nullable Object value) {
+            cache.put(key, new CachedValue(value, System.nanoTime()));
+        }
+
+        @Override
+        public @Nullable ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+            ValueWrapper existing = cache.putIfAbsent(key, new CachedValue(value, System.nanoTime()));
+            return existing != null && existing.get() instanceof CachedValue cached
+                    ? new SimpleValueWrapper(cached.value())
+                    : null;
+        }
+
+        @Override
+        public void evict(Object key) {
+            evictLocally(key);
+            publish(this, key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            generation.incrementAndGet();
+            boolean evicted = cache.evictIfPresent(key);
+            publish(this, key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            clearLocally();
+            publish(this, null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            generation.incrementAndGet();
+            boolean invalidated = cache.invalidate();
+            publish(this, null);
+            return invalidated;
+        }
+
+        private void evictLocally(Object key) {
+            generation.incrementAndGet();
+            cache.evict(key);
+        }
+
+        private void clearLocally() {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+
+        private @Nullable CachedValue lookup(Object key) {
+            ValueWrapper wrapper = cache.get(key);
+            return wrapper != null && wrapper.get() instanceof CachedValue cached ? cached : null;
+        }
+
+        private boolean isExpired(CachedValue cached) {
+            return cached.age().compareTo(policy.getTtl()) >= 0;
+        }
+
+        /**
+         * Loads a missing entry. Clearing the cache does not cancel a load in flight, so an entry whose load
+         * overlapped an eviction or clear may hold data read before it and is dropped again; the caller still gets
+         * the value.
+         */
+        private CachedValue load(Object key, Callable<?> valueLoader) {
+            long start = System.nanoTime();
+            long startGeneration = generation.get();
+            boolean inFlight = loading.containsKey(key);
+            AtomicBoolean loaded = new AtomicBoolean();
+            CachedValue cached = cache.get(key, () -> {
+                loaded.set(true);
+                loading.put(key, Boolean.TRUE);
+                try {
+                    return new CachedValue(valueLoader.call(), System.nanoTime());
+                } finally {
+                    loading.remove(key);
+                }
+            });
+            if (inFlight && !loaded.get()) {
+                coalescedWaits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (loaded.get() && generation.get() != startGeneration) {
+                asMap(this).remove(key, cached);
+            }
+            return cached;
+        }
+
+        private @Nullable Object reloadExpired(Object key, Callable<?> valueLoader, CachedValue stale) {
+            try {
+                return reload(key, valueLoader, UserContext.currentUserId(), false).join().value();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                boolean withinStaleWindow = stale.age().compareTo(policy.getRetention()) < 0;
+                if (policy.getStaleIfError() != null && withinStaleWindow && isDatabaseFailure(cause)) {
+                    log.warn("Serving stale entry of cache {}, reload failed: {}", getName(), cause.getMessage());
+                    staleServedError.increment();
+                    return stale.value();
+                }
+                throw new ValueRetrievalException(key, valueLoader, cause);
+            }
+        }
+
+        private void refreshAhead(Object key, Callable<?> valueLoader) {
+            Long userId = UserContext.currentUserId();
+            if (userId == null) {
+                return;
+            }
+            reload(key, valueLoader, userId, true).exceptionally(e -> {
+                log.debug("Refresh ahead of cache {} failed: {}", getName(), e.getMessage());
+                return null;
+            });
+        }
+
+        /**
+         * Reloads an entry once per key, concurrent callers share the pending reload. The result is only stored
+         * if the cache was not invalidated meanwhile.
+         */
+        private CompletableFuture<CachedValue> reload(Object key, Callable<?> valueLoader, @Nullable Long userId,
+                boolean async) {
+            CompletableFuture<CachedValue> future = new CompletableFuture<>();
+            CompletableFuture<CachedValue> pending = reloads.putIfAbsent(key, future);
+            if (pending != null) {
+                return pending;
+            }
+            long startGeneration = generation.get();
+            Runnable task = () -> {
+                try {
+                    Object value = UserContext.runAs(userId, () -> reloadTransaction.execute(_ -> call(valueLoader)));
+                    CachedValue cached = new CachedValue(value, System.nanoTime());
+                    if (generation.get() == startGeneration) {
+                        cache.put(key, cached);
+                    }
+                    future.complete(cached);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    reloads.remove(key, future);
+                }
+            };
+            if (!async) {
+                task.run();
+                return future;
+            }
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                reloads.remove(key, future);
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        private static @Nullable Object call(Callable<?> valueLoader) {
+            try {
+                return valueLoader.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.utils.RequestDeadlineUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caps transaction timeouts at the time left until the request deadline. Hibernate applies the transaction
+ * timeout to every JDBC statement and Spring turns it into {@code jakarta.persistence.query.timeout} for
+ * repository queries, so a statement still running, or waiting on a row lock, at the deadline is cancelled and
+ * its connection handed back to the pool.
+ * <p>
+ * The servlet container does not report a client that disconnects during a blocking request, so the request keeps
+ * running until its deadline. To bound that, the statement still running when the deadline passes is cancelled
+ * through {@link Session#cancelQuery()} instead of waiting for the rounded-up statement timeout.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager implements DisposableBean {
+
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+    private final ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("deadline-canceller").daemon().factory());
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Optional<Duration> remaining = RequestDeadlineUtils.remaining();
+        if (remaining.isEmpty()) {
+            return timeout;
+        }
+        long remainingMillis = remaining.get().toMillis();
+        if (remainingMillis <= 0) {
+            throw new TransactionTimedOutException("Request deadline exceeded before the transaction started");
+        }
+        int remainingSeconds = (int) Math.ceilDiv(remainingMillis, 1000L);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout,
+                remainingSeconds);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        RequestDeadlineUtils.remaining().ifPresent(remaining -> {
+            var holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(
+                    obtainEntityManagerFactory());
+            if (holder != null) {
+                long remainingMillis = Math.max(remaining.toMillis(), 0);
+                holder.getEntityManager().setProperty(LOCK_TIMEOUT_HINT, remainingMillis);
+                Session session = holder.getEntityManager().unwrap(Session.class);
+                TransactionSynchronizationManager.bindResource(holder,
+                        canceller.schedule(session::cancelQuery, remainingMillis, TimeUnit.MILLISECONDS));
+            }
+        });
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        var holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder != null && TransactionSynchronizationManager.unbindResourceIfPossible(holder)
+                instanceof ScheduledFuture<?> cancellation) {
+            cancellation.cancel(false);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    @Override
+    public void destroy() {
+        canceller.shutdownNow();
+    }
+
+}
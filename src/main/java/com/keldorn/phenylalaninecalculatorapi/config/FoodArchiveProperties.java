@@ -0,0 +1,18 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.archive.food")
+public class FoodArchiveProperties {
+
+    private boolean enabled = true;
+    private int recentConsumptionDays = 90;
+
+}
@@ -0,0 +1,23 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.nio.file.Path;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.catalog")
+public class FoodCatalogProperties {
+
+    private boolean enabled = true;
+    /**
+     * Directory of the memory-mapped catalog files, cleared on startup.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "food-catalog");
+
+}
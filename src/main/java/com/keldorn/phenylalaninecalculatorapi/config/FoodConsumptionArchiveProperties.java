@@ -0,0 +1,19 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.archive.food-consumption")
+public class FoodConsumptionArchiveProperties {
+
+    private boolean enabled = true;
+    private int horizonMonths = 12;
+    private int monthsAhead = 3;
+
+}
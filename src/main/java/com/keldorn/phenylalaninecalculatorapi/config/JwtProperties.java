@@ -28,6 +28,11 @@ public class JwtProperties {
     @Setter
     public static class Access {
         private Duration expirationTime;
+        /**
+         * Number of verified access tokens whose claims are kept, so a reused token is not verified again. Zero
+         * verifies every request.
+         */
+        private long verifiedCacheSize = 10_000;
     }
 
     @Getter
@@ -0,0 +1,31 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Wraps the auto-configured pool so a transaction only takes a connection when it runs its first statement.
+ * Requests answered from the cache, or waiting for a concurrent load of the same key, then never hold one.
+ * The routing data sources are lazy already and are left alone.
+ */
+@Configuration
+public class LazyConnectionConfig {
+
+    @Bean
+    public static BeanPostProcessor lazyConnectionDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && "dataSource".equals(beanName)) {
+                    return new LazyConnectionDataSourceProxy(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
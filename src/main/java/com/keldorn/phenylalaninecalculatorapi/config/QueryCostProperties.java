@@ -0,0 +1,17 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.query.cost")
+public class QueryCostProperties {
+
+    private int budget = 100;
+
+}
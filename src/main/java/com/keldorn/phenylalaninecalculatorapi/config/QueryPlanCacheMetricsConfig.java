@@ -0,0 +1,54 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the Hibernate query plan cache counters. They come from Hibernate's statistics, which cost a little on
+ * every session, so they are only collected with {@code app.metrics.query-plan-cache.enabled}; without it no meters
+ * are registered.
+ */
+@Configuration
+public class QueryPlanCacheMetricsConfig {
+
+    private static final String METRIC_NAME = "hibernate.query.plan.cache";
+
+    @Bean
+    public MeterBinder queryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            if (!statistics.isStatisticsEnabled()) {
+                return;
+            }
+            FunctionCounter.builder(METRIC_NAME + ".requests", statistics, Statistics::getQueryPlanCacheHitCount)
+                    .tag("result", "hit")
+                    .description("Number of query plans served from the Hibernate query plan cache")
+                    .register(registry);
+            FunctionCounter.builder(METRIC_NAME + ".requests", statistics, Statistics::getQueryPlanCacheMissCount)
+                    .tag("result", "miss")
+                    .description("Number of query plans that had to be compiled")
+                    .register(registry);
+            Gauge.builder(METRIC_NAME + ".hit.ratio", statistics, QueryPlanCacheMetricsConfig::hitRatio)
+                    .description("Share of query plan lookups served from the cache")
+                    .register(registry);
+        };
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        if (!statistics.isStatisticsEnabled()) {
+            return Double.NaN;
+        }
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long total = hits + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+}
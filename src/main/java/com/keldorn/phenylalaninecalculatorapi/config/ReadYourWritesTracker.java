@@ -0,0 +1,45 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers users that committed a read-write transaction within the read-your-writes window, so their
+ * read-only transactions keep going to the primary until the replica has caught up.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        Long userId = currentUserId();
+        if (commitFailure == null && !transaction.isReadOnly() && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecentWriter(@Nullable Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    public @Nullable Long currentUserId() {
+        return UserContext.currentUserId();
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.consumption.recent")
+public class RecentConsumptionProperties {
+
+    private boolean enabled = true;
+    /**
+     * Number of users whose recent consumptions are kept, the least recently used are dropped above it.
+     */
+    private int maximumUsers = 10_000;
+    /**
+     * Users with more consumptions since the start of their previous day are read from the database instead.
+     */
+    private int maximumEntriesPerUser = 500;
+    /**
+     * How long the consumptions of a user are kept. Writes made on another node are evicted through the
+     * {@code cache_invalidation} change-log, so this only bounds how long a lost invalidation goes unnoticed.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+}
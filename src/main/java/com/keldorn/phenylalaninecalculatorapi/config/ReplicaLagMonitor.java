@@ -0,0 +1,65 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Tracks how far the replica is behind the primary. An empty status result means the replica is not replicating
+ * from anything (e.g. two independent local instances) and is treated as in sync; a {@code NULL} lag means
+ * replication is broken and the replica is taken out of rotation.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReplicaDataSourceProperties properties;
+
+    @Getter
+    private volatile boolean healthy;
+
+    @Getter
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, ReplicaDataSourceProperties properties) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5s}")
+    public void refresh() {
+        try {
+            List<Long> lags = replicaJdbcTemplate.query(properties.getLagQuery(), (rs, _) -> {
+                long seconds = rs.getLong(properties.getLagColumn());
+                return rs.wasNull() ? null : seconds;
+            });
+            if (lags.isEmpty()) {
+                update(Duration.ZERO);
+            } else if (lags.getFirst() == null) {
+                log.warn("Replica is not replicating, routing reads to the primary");
+                update(null);
+            } else {
+                update(Duration.ofSeconds(lags.getFirst()));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not read replica lag, routing reads to the primary: {}", e.getMessage());
+            update(null);
+        }
+    }
+
+    private void update(Duration currentLag) {
+        lag = currentLag;
+        boolean wasHealthy = healthy;
+        healthy = currentLag != null && currentLag.compareTo(properties.getMaxLag()) <= 0;
+        if (wasHealthy != healthy) {
+            log.info("Replica is now {} (lag: {})", healthy ? "in rotation" : "out of rotation", currentLag);
+        }
+    }
+
+}
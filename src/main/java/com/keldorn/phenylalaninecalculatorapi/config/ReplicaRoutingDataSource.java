@@ -0,0 +1,30 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Target for read-only connections: the replica while it is within the allowed lag and the current user has not
+ * written recently, the primary otherwise.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!lagMonitor.isHealthy() || readYourWritesTracker.isRecentWriter(readYourWritesTracker.currentUserId())) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+}
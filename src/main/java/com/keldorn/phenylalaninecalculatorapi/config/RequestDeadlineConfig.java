@@ -0,0 +1,34 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.filter.RequestDeadlineFilter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@Configuration
+public class RequestDeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(RequestDeadlineProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(properties, resolver));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionExecutionListener> listeners) {
+        JpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+        transactionManager.setTransactionExecutionListeners(listeners.orderedStream().toList());
+        return transactionManager;
+    }
+
+}
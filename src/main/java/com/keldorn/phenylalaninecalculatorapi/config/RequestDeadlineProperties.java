@@ -0,0 +1,25 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.deadline")
+public class RequestDeadlineProperties {
+
+    private boolean enabled = true;
+    private Duration defaultBudget = Duration.ofSeconds(5);
+    private Duration maxBudget = Duration.ofSeconds(30);
+    private String header = "X-Request-Timeout-Ms";
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,31 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.response")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private DataSize heapBudget = DataSize.ofMegabytes(32);
+    /**
+     * Responses of at least this size are also stored gzipped and served so to clients accepting it.
+     */
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+    /**
+     * GET endpoints whose responses are cached, mapped to the cache their data is read from. A cached response is
+     * dropped whenever that cache is evicted.
+     */
+    private Map<String, String> endpoints = new LinkedHashMap<>();
+
+}
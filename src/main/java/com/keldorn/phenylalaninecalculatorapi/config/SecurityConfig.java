@@ -2,6 +2,8 @@ package com.keldorn.phenylalaninecalculatorapi.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiResponses;
+import com.keldorn.phenylalaninecalculatorapi.constant.ResponseHeaders;
+import com.keldorn.phenylalaninecalculatorapi.domain.enums.Roles;
 import com.keldorn.phenylalaninecalculatorapi.dto.error.ErrorResponse;
 import com.keldorn.phenylalaninecalculatorapi.filter.JwtAuthFilter;
 import com.keldorn.phenylalaninecalculatorapi.service.JwtService;
@@ -39,10 +41,11 @@ public class SecurityConfig {
 
     private final AuthenticationProvider authenticationProvider;
     private final CorsProperties corsProperties;
+    private final RequestDeadlineProperties requestDeadlineProperties;
 
     private final String[] freeResourceUrls = {"/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**",
-            "/swagger-resources/**", "/api-docs/**", "/actuator/health", "/api/v1/auth/authenticate",
-            "/api/v1/auth/register", "/api/v1/auth/logout", "/api/v1/auth/refresh"};
+            "/swagger-resources/**", "/api-docs/**", "/actuator/health", "/actuator/health/**",
+            "/api/v1/auth/authenticate", "/api/v1/auth/register", "/api/v1/auth/logout", "/api/v1/auth/refresh"};
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, JwtAuthFilter jwtAuthFilter,
@@ -54,6 +57,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers(freeResourceUrls).permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority(Roles.ROLE_ADMIN.name())
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider)
@@ -82,8 +86,10 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(corsProperties.getAllowedOrigins());
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
-        configuration.setExposedHeaders(List.of("Set-Cookie"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type",
+                requestDeadlineProperties.getHeader()));
+        configuration.setExposedHeaders(List.of("Set-Cookie", ResponseHeaders.QUERY_COST,
+                ResponseHeaders.QUERY_COST_BUDGET));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
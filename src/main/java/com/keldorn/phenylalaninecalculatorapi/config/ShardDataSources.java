@@ -0,0 +1,27 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Connection pools of all shards keyed by shard id, including the primary.
+ */
+public record ShardDataSources(Map<String, HikariDataSource> dataSources) implements AutoCloseable {
+
+    public DataSource get(String shardId) {
+        DataSource dataSource = dataSources.get(shardId);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shardId);
+        }
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        dataSources.values().forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardResolver;
+import com.keldorn.phenylalaninecalculatorapi.utils.ShardContext;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Picks the shard of every new transaction before it begins. Transactions declared by a {@link UserSharded}
+ * service run on the shard of the current user, all others on the primary.
+ */
+@Slf4j
+public class ShardTransactionListener implements TransactionExecutionListener {
+
+    private final ShardResolver shardResolver;
+    private final Map<String, Boolean> shardedClasses = new ConcurrentHashMap<>();
+
+    public ShardTransactionListener(ShardResolver shardResolver) {
+        this.shardResolver = shardResolver;
+    }
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        String shard = ShardingProperties.PRIMARY_SHARD;
+        Long userId = UserContext.currentUserId();
+        if (userId != null && isUserSharded(transaction.getTransactionName())) {
+            shard = shardResolver.shardFor(userId);
+        }
+        log.debug("Transaction {} runs on shard {}", transaction.getTransactionName(), shard);
+        ShardContext.push(transaction, shard);
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure != null) {
+            ShardContext.pop(transaction);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        ShardContext.pop(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        ShardContext.pop(transaction);
+    }
+
+    private boolean isUserSharded(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        int separator = transactionName.lastIndexOf('.');
+        if (separator < 0) {
+            return false;
+        }
+        return shardedClasses.computeIfAbsent(transactionName.substring(0, separator), className -> {
+            try {
+                return ClassUtils.forName(className, getClass().getClassLoader())
+                        .isAnnotationPresent(UserSharded.class);
+            } catch (ClassNotFoundException | LinkageError _) {
+                return false;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.service.ShardResolver;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Routes per-user tables to shards. The primary keeps the global catalog and all users. Every shard carries the
+ * full schema but only holds rows of the per-user tables, which have no foreign keys to {@code users}.
+ * {@link com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded} transactions read the catalog through
+ * {@link com.keldorn.phenylalaninecalculatorapi.service.ShardTransactions#readOnPrimary}. Not meant to be combined
+ * with replica routing.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Width of the id range reserved for each shard, keeps pooled table ids unique across shards so rows can be
+     * moved between them.
+     */
+    private static final long SHARD_ID_RANGE = 1_000_000_000_000L;
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties dataSourceProperties,
+            ShardingProperties shardingProperties) {
+        Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ShardingProperties.PRIMARY_SHARD);
+        dataSources.put(ShardingProperties.PRIMARY_SHARD, primary);
+        shardingProperties.getShards().forEach((shardId, shard) -> {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shardId);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSources.put(shardId, dataSource);
+        });
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(new HashMap<>(shardDataSources.dataSources()));
+        routingDataSource.setDefaultTargetDataSource(shardDataSources.get(ShardingProperties.PRIMARY_SHARD));
+        routingDataSource.afterPropertiesSet();
+        log.info("Routing user sharded transactions over shards {}", shardDataSources.dataSources().keySet());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ShardTransactionListener shardTransactionListener(ShardResolver shardResolver) {
+        return new ShardTransactionListener(shardResolver);
+    }
+
+    @Bean
+    public SmartInitializingSingleton shardSchemaMigration(ShardDataSources shardDataSources,
+            ShardingProperties shardingProperties, ResourceLoader resourceLoader,
+            @Value("${app.sharding.change-log:${spring.liquibase.change-log}}") String changeLog) {
+        return () -> shardingProperties.getShards().forEach((shardId, shard) -> {
+            DataSource dataSource = shardDataSources.get(shardId);
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(dataSource);
+            liquibase.setChangeLog("classpath:" + changeLog);
+            liquibase.setResourceLoader(resourceLoader);
+            liquibase.setChangeLogParameters(Map.of("shardingEnabled", "true"));
+            try {
+                liquibase.afterPropertiesSet();
+            } catch (LiquibaseException e) {
+                throw new IllegalStateException("Could not migrate shard " + shardId, e);
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("UPDATE id_generator SET next_val = GREATEST(next_val, ?)",
+                    shard.getIndex() * SHARD_ID_RANGE);
+            log.info("Migrated shard {}", shardId);
+        });
+    }
+
+}
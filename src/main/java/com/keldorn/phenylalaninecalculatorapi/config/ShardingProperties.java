@@ -0,0 +1,39 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    public static final String PRIMARY_SHARD = "primary";
+
+    private boolean enabled = false;
+    private int buckets = 1024;
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        /**
+         * Stable position of the shard, used to give every shard its own id range. Never reuse or renumber it.
+         */
+        private int index;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+    }
+
+}
@@ -17,12 +17,18 @@ public final class ApiResponses {
     public static final String RESOURCE_NOT_FOUND_RESPONSE = "The requested resource could not be found.";
     public static final String DAILY_INTAKE_NEGATIVE_RESPONSE = "Daily intake values must be zero or greater.";
     public static final String INTERNAL_RESPONSE = "An internal server error occurred. Please try again later.";
+    public static final String DEADLINE_EXCEEDED_RESPONSE =
+            "The request could not be completed in time. Please try again later.";
     public static final String DEFAULT_RESPONSE = "Invalid request parameters.";
     public static final String MALFORMED_RESPONSE = "Malformed data received";
     public static final String REQUIRED_MISSING_RESPONSE = "Required parameter is missing: %s";
     public static final String AUTHENTICATION_REQUIRED_RESPONSE =
             "Full authentication is required to access this resource";
     public static final String INVALID_RSQL_RESPONSE = "Invalid query or sort parameters";
+    public static final String INVALID_REQUEST_DEADLINE_RESPONSE =
+            "The request timeout header must be a positive number of milliseconds.";
+    public static final String QUERY_COST_EXCEEDED_RESPONSE = "The query is too expensive. Use prefix searches, " +
+            "fewer OR branches or sort on indexed fields.";
     public static final String UNOWNED_RESOURCE_RESPONSE = "You are not the owner of this resource";
     public static final String CONCURRENT_UPDATE_RESPONSE = "A concurrent update occurred. Please try again.";
 
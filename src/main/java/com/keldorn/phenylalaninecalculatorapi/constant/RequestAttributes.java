@@ -7,5 +7,7 @@ public class RequestAttributes {
 
     public static final String CURRENT_USER = "CURRENT_USER";
     public static final String CURRENT_USER_ID = "CURRENT_USER_ID";
+    public static final String REQUEST_DEADLINE = "REQUEST_DEADLINE";
+    public static final String HOT_KEY = "HOT_KEY";
 
 }
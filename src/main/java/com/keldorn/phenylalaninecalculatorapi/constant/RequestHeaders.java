@@ -0,0 +1,13 @@
+package com.keldorn.phenylalaninecalculatorapi.constant;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public final class RequestHeaders {
+
+    /**
+     * Marks the requests replayed by the cache warm-up, which are not counted as hot keys.
+     */
+    public static final String CACHE_WARM_UP = "X-Cache-Warm-Up";
+
+}
@@ -0,0 +1,11 @@
+package com.keldorn.phenylalaninecalculatorapi.constant;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public final class ResponseHeaders {
+
+    public static final String QUERY_COST = "X-Query-Cost";
+    public static final String QUERY_COST_BUDGET = "X-Query-Cost-Budget";
+
+}
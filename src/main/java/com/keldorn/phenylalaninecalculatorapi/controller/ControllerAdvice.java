@@ -7,8 +7,10 @@ import com.keldorn.phenylalaninecalculatorapi.exception.DailyIntakeCannotBeLower
 import com.keldorn.phenylalaninecalculatorapi.exception.DeletedUserTokenReceivedException;
 import com.keldorn.phenylalaninecalculatorapi.exception.EmailIsTakenException;
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidRequestDeadlineException;
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidRSQLException;
 import com.keldorn.phenylalaninecalculatorapi.exception.PasswordMismatchException;
+import com.keldorn.phenylalaninecalculatorapi.exception.QueryCostExceededException;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.exception.UsernameIsTakenException;
 
@@ -16,12 +18,15 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -51,7 +56,8 @@ public class ControllerAdvice {
         return buildAndLog(HttpStatus.UNAUTHORIZED, ApiResponses.CLIENT_ERROR, ex);
     }
 
-    @ExceptionHandler(InvalidRSQLException.class)
+    @ExceptionHandler({InvalidRSQLException.class, QueryCostExceededException.class,
+            InvalidRequestDeadlineException.class})
     public ResponseEntity<Object> handleBadRequest(Exception ex) {
         return buildAndLog(HttpStatus.BAD_REQUEST, ApiResponses.CLIENT_ERROR, ex);
     }
@@ -61,6 +67,12 @@ public class ControllerAdvice {
         return buildAndLog(HttpStatus.FORBIDDEN, ApiResponses.CLIENT_ERROR, ex);
     }
 
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class,
+            CannotAcquireLockException.class})
+    public ResponseEntity<Object> handleDeadlineExceeded(Exception ex) {
+        return buildAndLog(HttpStatus.SERVICE_UNAVAILABLE, ApiResponses.INTERNAL_ERROR, ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleInternalError(Exception ex) {
         return buildAndLog(HttpStatus.INTERNAL_SERVER_ERROR, ApiResponses.INTERNAL_ERROR, ex);
@@ -107,7 +119,7 @@ public class ControllerAdvice {
     }
 
     private ResponseEntity<Object> buildAndLog(HttpStatus status, String type, Exception ex) {
-        boolean isError = status.is5xxServerError();
+        boolean isError = status == HttpStatus.INTERNAL_SERVER_ERROR;
         if (isError) {
             log.error("Internal server error: ", ex);
         } else {
@@ -123,6 +135,9 @@ public class ControllerAdvice {
     }
 
     private String getUserFriendlyMessage(Exception ex, HttpStatus status) {
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            return ApiResponses.DEADLINE_EXCEEDED_RESPONSE;
+        }
         if (status.is5xxServerError()) {
             return ApiResponses.INTERNAL_RESPONSE;
         }
@@ -135,6 +150,8 @@ public class ControllerAdvice {
             case "ResourceNotFoundException" -> ApiResponses.RESOURCE_NOT_FOUND_RESPONSE;
             case "DailyIntakeCannotBeLowerThanZeroException" -> ApiResponses.DAILY_INTAKE_NEGATIVE_RESPONSE;
             case "InvalidRSQLException" -> ApiResponses.INVALID_RSQL_RESPONSE;
+            case "QueryCostExceededException" -> ApiResponses.QUERY_COST_EXCEEDED_RESPONSE;
+            case "InvalidRequestDeadlineException" -> ApiResponses.INVALID_REQUEST_DEADLINE_RESPONSE;
             case "CannotEditResourceException" -> ApiResponses.UNOWNED_RESOURCE_RESPONSE;
             case "OptimisticLockingFailureException", "ObjectOptimisticLockingFailureException" ->
                     ApiResponses.CONCURRENT_UPDATE_RESPONSE;
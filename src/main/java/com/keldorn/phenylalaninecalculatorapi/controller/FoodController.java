@@ -4,6 +4,7 @@ import com.keldorn.phenylalaninecalculatorapi.annotation.BadRequestApiResponse;
 import com.keldorn.phenylalaninecalculatorapi.annotation.NotFoundApiResponse;
 import com.keldorn.phenylalaninecalculatorapi.annotation.UnauthorizedApiResponse;
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.constant.ResponseHeaders;
 import com.keldorn.phenylalaninecalculatorapi.constant.SwaggerDescriptions;
 import com.keldorn.phenylalaninecalculatorapi.constant.SwaggerResponseCodes;
 import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodRequest;
@@ -13,6 +14,8 @@ import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
 import com.keldorn.phenylalaninecalculatorapi.service.FoodService;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
+import com.keldorn.phenylalaninecalculatorapi.service.QueryCostService;
 
 import java.net.URI;
 
@@ -47,6 +50,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class FoodController {
 
     private final FoodService foodService;
+    private final QueryCostService queryCostService;
+    private final HotKeyService hotKeyService;
 
     @Operation(
             summary = "Retrieves a food entry by id",
@@ -63,6 +68,7 @@ public class FoodController {
     @UnauthorizedApiResponse
     public ResponseEntity<FoodResponse> getById(@PathVariable Long id) {
         log.info("Get Request to {} : {}", id, ApiRoutes.FOOD_PATH);
+        hotKeyService.recordFood(id);
         return ResponseEntity.ok(foodService.findById(id));
     }
 
@@ -78,10 +84,18 @@ public class FoodController {
     @GetMapping
     @BadRequestApiResponse
     @UnauthorizedApiResponse
-    public ResponseEntity<PagedFoodResponse> getAll(@ParameterObject QueryRequest queryRequest, @ParameterObject
-    PaginationRequest pageRequest) {
+    public ResponseEntity<PagedFoodResponse> getAll(@Valid @ParameterObject QueryRequest queryRequest,
+            @ParameterObject PaginationRequest pageRequest) {
         log.info("Get All Request: {}", ApiRoutes.FOOD_PATH);
+        hotKeyService.recordFoodPage(queryRequest, pageRequest);
         var result = foodService.findAll(queryRequest, pageRequest);
+        if (queryRequest.isExplain()) {
+            return ResponseEntity.ok()
+                    .header(ResponseHeaders.QUERY_COST,
+                            String.valueOf(queryCostService.estimateFoodQuery(queryRequest)))
+                    .header(ResponseHeaders.QUERY_COST_BUDGET, String.valueOf(queryCostService.getBudget()))
+                    .body(result);
+        }
         return ResponseEntity.ok(result);
     }
 
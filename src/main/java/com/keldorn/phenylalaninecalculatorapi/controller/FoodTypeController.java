@@ -11,6 +11,7 @@ import com.keldorn.phenylalaninecalculatorapi.dto.foodtype.FoodTypeResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.foodtype.PagedFoodTypeResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.service.FoodTypeService;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
 
 import java.net.URI;
 
@@ -45,6 +46,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class FoodTypeController {
 
     private final FoodTypeService foodTypeService;
+    private final HotKeyService hotKeyService;
 
     @Operation(
             summary = "Retrieves a food type entry by id",
@@ -62,6 +64,7 @@ public class FoodTypeController {
     @UnauthorizedApiResponse
     public ResponseEntity<FoodTypeResponse> findById(@PathVariable Long id) {
         log.info("Get Request to {}: {}", id, ApiRoutes.FOOD_TYPE_PATH);
+        hotKeyService.recordFoodType(id);
         return ResponseEntity.ok(foodTypeService.findById(id));
     }
 
@@ -79,6 +82,7 @@ public class FoodTypeController {
     @UnauthorizedApiResponse
     public ResponseEntity<PagedFoodTypeResponse> findAll(@ParameterObject PaginationRequest paginationRequest) {
         log.info("Get All: {}", ApiRoutes.FOOD_TYPE_PATH);
+        hotKeyService.recordFoodTypePage(paginationRequest);
         var result = foodTypeService.findAll(paginationRequest);
         return ResponseEntity.ok(result);
     }
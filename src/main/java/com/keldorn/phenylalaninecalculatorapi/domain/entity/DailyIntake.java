@@ -15,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Version;
 
@@ -45,7 +46,9 @@ public class DailyIntake {
 
     @Id
     @Column(name = "daily_intake_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "daily_intake_id_generator")
+    @TableGenerator(name = "daily_intake_id_generator", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "daily_intake", allocationSize = 50)
     private Long id;
 
     @Column(name = "date")
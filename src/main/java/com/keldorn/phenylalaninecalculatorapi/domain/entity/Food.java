@@ -12,10 +12,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,6 +25,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLDelete;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -34,19 +37,26 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "food")
+@DynamicUpdate
+@Table(name = "food", indexes = @Index(name = "idx_food_name_normalized", columnList = "name_normalized"))
 @EntityListeners(AuditingEntityListener.class)
 @SQLDelete(sql = "UPDATE food SET is_deleted = true WHERE food_id = ?")
 public class Food {
 
     @Id
     @Column(name = "food_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "food_id_generator")
+    @TableGenerator(name = "food_id_generator", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "food", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
     private String name;
 
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) COLLATE utf8mb4_0900_ai_ci GENERATED ALWAYS AS (LOWER(name)) STORED")
+    private String nameNormalized;
+
     @Column(name = "protein", nullable = false, precision = 10, scale = 2)
     private BigDecimal protein;
 
@@ -15,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -38,13 +39,15 @@ public class FoodConsumption {
 
     @Id
     @Column(name = "food_consumption_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "food_consumption_id_generator")
+    @TableGenerator(name = "food_consumption_id_generator", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "food_consumption", allocationSize = 50)
     private Long id;
 
     @Column(name = "amount", precision = 10, scale = 2)
     private BigDecimal amount;
 
-    @Column(name = "consumed_at")
+    @Column(name = "consumed_at", nullable = false)
     private Instant consumedAt;
 
     @Column(name = "phenylalanine_amount", precision = 12, scale = 4)
@@ -66,4 +69,16 @@ public class FoodConsumption {
     @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.DETACH, CascadeType.REFRESH})
     private Food food;
 
+    /**
+     * Name of the food when it was consumed, kept so consumptions resolve without reading the food tables.
+     */
+    @Column(name = "food_name")
+    private String foodName;
+
+    /**
+     * Phenylalanine content of the food when it was consumed, used to recalculate the amount on updates.
+     */
+    @Column(name = "food_phenylalanine", precision = 10, scale = 2)
+    private BigDecimal foodPhenylalanine;
+
 }
@@ -1,5 +1,6 @@
 package com.keldorn.phenylalaninecalculatorapi.domain.enums;
 
 public enum Roles {
-    ROLE_USER
+    ROLE_USER,
+    ROLE_ADMIN
 }
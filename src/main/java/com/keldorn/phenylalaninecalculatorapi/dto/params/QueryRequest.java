@@ -22,7 +22,9 @@ public class QueryRequest {
     @Size(max = 500)
     @JsonProperty("query")
     @Schema(name = "query", example = "name=ilike='Some Food' and protein=lt='2'", description = "RSQL query for " +
-            "filtering the returned data.", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+            "filtering the returned data. A trailing wildcard on name== (e.g. name=='app*') is an " +
+            "indexed prefix search, name=ilike= always matches anywhere in the name.",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED)
     private @Nullable String query;
 
     @Size(max = 200)
@@ -32,4 +34,10 @@ public class QueryRequest {
             requiredMode = Schema.RequiredMode.NOT_REQUIRED)
     private String sort = "name,desc";
 
+    @JsonProperty("explain")
+    @Schema(name = "explain", example = "false", description = "Reports the estimated query cost and the allowed " +
+            "budget in the X-Query-Cost and X-Query-Cost-Budget response headers.",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private boolean explain;
+
 }
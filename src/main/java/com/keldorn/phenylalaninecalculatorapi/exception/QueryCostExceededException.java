@@ -0,0 +1,7 @@
+package com.keldorn.phenylalaninecalculatorapi.exception;
+
+import lombok.experimental.StandardException;
+
+@StandardException
+public class QueryCostExceededException extends RuntimeException {
+}
@@ -3,6 +3,7 @@ package com.keldorn.phenylalaninecalculatorapi.filter;
 import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
 import com.keldorn.phenylalaninecalculatorapi.service.JwtService;
+import com.keldorn.phenylalaninecalculatorapi.service.JwtService.AccessPrincipal;
 
 import java.io.IOException;
 
@@ -15,14 +16,10 @@ import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
-import io.jsonwebtoken.Claims;
-
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
@@ -41,11 +38,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             String token = getToken(request, response, filterChain);
             if (token != null) {
-                Claims claims = jwtService.validateAndParseAccessToken(token);
-                String username = jwtService.extractUsername(claims);
-                Long userId = jwtService.extractUserId(claims);
-                request.setAttribute(RequestAttributes.CURRENT_USER_ID, userId);
-                authenticate(request, username, claims);
+                AccessPrincipal principal = jwtService.verifyAccessToken(token);
+                request.setAttribute(RequestAttributes.CURRENT_USER_ID, principal.userId());
+                authenticate(principal);
                 filterChain.doFilter(request, response);
             }
         } catch (InvalidJwtTokenReceivedException e) {
@@ -53,15 +48,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
     }
 
-    private void authenticate(HttpServletRequest request, String username, Claims claims) {
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var roles = jwtService.extractRoles(claims);
-            var authorities = roles.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .toList();
+    private void authenticate(AccessPrincipal principal) {
+        if (principal.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    new UsernamePasswordAuthenticationToken(principal.username(), null, principal.authorities());
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
     }
@@ -0,0 +1,78 @@
+package com.keldorn.phenylalaninecalculatorapi.filter;
+
+import com.keldorn.phenylalaninecalculatorapi.config.RequestDeadlineProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidRequestDeadlineException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Stamps every request with a deadline. The budget comes from the first matching {@code app.deadline.endpoints}
+ * pattern or the default budget, and a client may override it through the configured header, capped at the
+ * maximum budget. A header that is not a positive number of milliseconds is rejected with 400.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final RequestDeadlineProperties properties;
+    private final HandlerExceptionResolver resolver;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestDeadlineFilter(RequestDeadlineProperties properties, HandlerExceptionResolver resolver) {
+        this.properties = properties;
+        this.resolver = resolver;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (properties.isEnabled()) {
+            try {
+                request.setAttribute(RequestAttributes.REQUEST_DEADLINE, Instant.now().plus(resolveBudget(request)));
+            } catch (InvalidRequestDeadlineException e) {
+                resolver.resolveException(request, response, null, e);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    Duration resolveBudget(HttpServletRequest request) {
+        Duration budget = properties.getEndpoints().entrySet().stream()
+                .filter(entry -> pathMatcher.match(entry.getKey(), request.getRequestURI()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(properties.getDefaultBudget());
+        String header = request.getHeader(properties.getHeader());
+        if (header != null) {
+            budget = parseHeader(header);
+        }
+        return budget.compareTo(properties.getMaxBudget()) > 0 ? properties.getMaxBudget() : budget;
+    }
+
+    private Duration parseHeader(String header) {
+        long millis;
+        try {
+            millis = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestDeadlineException("Malformed " + properties.getHeader() + " header: " + header, e);
+        }
+        if (millis <= 0) {
+            throw new InvalidRequestDeadlineException(properties.getHeader() + " must be positive: " + header);
+        }
+        return Duration.ofMillis(millis);
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.keldorn.phenylalaninecalculatorapi.filter;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CachePolicyProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.ResponseCacheProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository.HotKey;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches the encoded JSON of the configured GET endpoints per user and URL, so hits are written to the output
+ * stream without reaching the controllers or Jackson. Each response carries a weak ETag and large ones are also
+ * kept gzipped. A cached response is only served while the generation of the Spring cache its data comes from is
+ * the one it was rendered at, so it is invalidated together with that cache, and it expires at the soft TTL of
+ * that cache so background refreshes are picked up. Warm-up replays bypass it, as they exist to run the controllers
+ * and Jackson.
+ */
+@Slf4j
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private final ResponseCacheProperties properties;
+    private final CoherentCacheManager cacheManager;
+    private final HotKeyService hotKeyService;
+    private final Cache<String, EncodedResponse> responses;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, CoherentCacheManager cacheManager,
+            HotKeyService hotKeyService, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cacheManager = cacheManager;
+        this.hotKeyService = hotKeyService;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getHeapBudget().toBytes())
+                .weigher((String key, EncodedResponse value) -> value.weight(key))
+                .expireAfter(new SoftTtlExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "responses");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+                || request.getParameter("explain") != null || hotKeyService.isReplay(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String cacheName = resolveCacheName(request);
+        if (cacheName == null || !(request.getAttribute(RequestAttributes.CURRENT_USER_ID) instanceof Long userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = userId + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        long generation = cacheManager.getGeneration(cacheName);
+        EncodedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            if (cached.hotKey() != null) {
+                hotKeyService.recordHit(cached.hotKey());
+            }
+            write(request, response, cached);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpStatus.OK.value() || !isJson(wrapper.getContentType())) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        EncodedResponse encoded = encode(cacheName, generation, wrapper,
+                request.getAttribute(RequestAttributes.HOT_KEY) instanceof HotKey hotKey ? hotKey : null);
+        if (cacheManager.getGeneration(cacheName) == generation) {
+            responses.put(key, encoded);
+        }
+        write(request, response, encoded);
+    }
+
+    @Nullable String resolveCacheName(HttpServletRequest request) {
+        return properties.getEndpoints().entrySet().stream()
+                .filter(entry -> pathMatcher.match(entry.getKey(), request.getRequestURI()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private EncodedResponse encode(String cacheName, long generation, ContentCachingResponseWrapper wrapper,
+            @Nullable HotKey hotKey) {
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] gzipped = body.length >= properties.getGzipMinSize().toBytes() ? gzip(body) : null;
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        return new EncodedResponse(cacheName, generation, wrapper.getContentType(), body, gzipped, etag, hotKey);
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, EncodedResponse encoded)
+            throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(encoded.etag())) {
+            return;
+        }
+        response.setContentType(encoded.contentType());
+        byte[] body = encoded.body();
+        if (encoded.gzipped() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                body = encoded.gzipped();
+            }
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+
+    private static boolean isJson(@Nullable String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException _) {
+            return false;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record EncodedResponse(String cacheName, long generation, String contentType, byte[] body,
+                                   byte @Nullable [] gzipped, String etag, @Nullable HotKey hotKey) {
+
+        private int weight(String key) {
+            return 64 + 2 * key.length() + body.length + (gzipped != null ? gzipped.length : 0);
+        }
+
+    }
+
+    private class SoftTtlExpiry implements Expiry<String, EncodedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, EncodedResponse value, long currentTime) {
+            CachePolicyProperties.Policy policy = cacheManager.getPolicy(value.cacheName());
+            Duration ttl = policy.getSoftTtl() != null ? policy.getSoftTtl() : policy.getTtl();
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, EncodedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, EncodedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
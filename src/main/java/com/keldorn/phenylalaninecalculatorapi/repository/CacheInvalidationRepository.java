@@ -0,0 +1,62 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class CacheInvalidationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends an invalidation, joining the surrounding transaction when there is one. A {@code null} key
+     * invalidates the whole cache.
+     */
+    public void append(String cacheName, @Nullable String cacheKey, String origin) {
+        jdbcTemplate.update("INSERT INTO cache_invalidation (cache_name, cache_key, origin) VALUES (?, ?, ?)",
+                cacheName, cacheKey, origin);
+    }
+
+    public List<CacheInvalidation> findAfter(long id, int limit) {
+        return jdbcTemplate.query("SELECT id, cache_name, cache_key, origin, "
+                        + "TIMESTAMPDIFF(MICROSECOND, created_at, NOW(6)) AS age_micros "
+                        + "FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, _) -> new CacheInvalidation(rs.getLong("id"), rs.getString("cache_name"),
+                        rs.getString("cache_key"), rs.getString("origin"),
+                        Duration.ofNanos(rs.getLong("age_micros") * 1000)),
+                id, limit);
+    }
+
+    public Set<String> findCacheNamesAfter(long id) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT cache_name FROM cache_invalidation WHERE id > ?", String.class, id));
+    }
+
+    public long findMaxId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidation", Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    public int deleteOlderThan(Duration retention) {
+        return jdbcTemplate.update("DELETE FROM cache_invalidation "
+                + "WHERE created_at < NOW(6) - INTERVAL ? MICROSECOND", retention.toNanos() / 1000);
+    }
+
+    /**
+     * @param cacheKey portable form of the evicted key, {@code null} when the whole cache was invalidated
+     * @param age      time since the invalidation was written, measured by the database clock
+     */
+    public record CacheInvalidation(long id, String cacheName, @Nullable String cacheKey, String origin,
+            Duration age) {
+    }
+
+}
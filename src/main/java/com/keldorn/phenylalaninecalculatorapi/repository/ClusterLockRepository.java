@@ -0,0 +1,58 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Named MySQL user locks ({@code GET_LOCK}) shared by every instance connected to the primary, used to run
+ * scheduled maintenance on one instance of the cluster at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClusterLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs the action while holding the named lock on a dedicated connection. Returns {@code false} without running
+     * the action when another instance holds the lock.
+     */
+    public boolean runExclusively(String name, Runnable action) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!acquire(connection, name)) {
+                return false;
+            }
+            try {
+                action.run();
+                return true;
+            } finally {
+                release(connection, name);
+            }
+        }));
+    }
+
+    private static boolean acquire(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.execute();
+        }
+    }
+
+}
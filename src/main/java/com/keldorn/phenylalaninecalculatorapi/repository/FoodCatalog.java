@@ -0,0 +1,293 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.mapper.PageResponseMapper;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import lombok.Getter;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Read-only view of a memory-mapped food catalog file. The file holds a header, fixed-width food records ordered
+ * by id, an index of record positions ordered by name, and a table of UTF-8 strings the records point into.
+ * Nothing but this view lives on the heap; the mapping is released by the GC once no reader holds the view.
+ * Nutrients are stored unscaled with {@link #SCALE} decimals, a missing phenylalanine or multiplier as the
+ * minimum value of its type.
+ */
+public final class FoodCatalog {
+
+    static final int MAGIC = 0x46434154;
+    static final int VERSION = 1;
+    static final int SCALE = 2;
+
+    static final StructLayout HEADER = MemoryLayout.structLayout(
+            JAVA_INT.withName("magic"),
+            JAVA_INT.withName("version"),
+            JAVA_LONG.withName("count"),
+            JAVA_LONG.withName("nameIndexOffset"),
+            JAVA_LONG.withName("stringsOffset"));
+
+    static final StructLayout RECORD = MemoryLayout.structLayout(
+            JAVA_LONG.withName("id"),
+            JAVA_LONG.withName("userId"),
+            JAVA_LONG.withName("foodTypeId"),
+            JAVA_LONG.withName("protein"),
+            JAVA_LONG.withName("calories"),
+            JAVA_LONG.withName("phenylalanine"),
+            JAVA_LONG.withName("nameOffset"),
+            JAVA_LONG.withName("foodTypeNameOffset"),
+            JAVA_INT.withName("nameLength"),
+            JAVA_INT.withName("foodTypeNameLength"),
+            JAVA_INT.withName("multiplier"),
+            MemoryLayout.paddingLayout(4));
+
+    private static final long COUNT = HEADER.byteOffset(groupElement("count"));
+    private static final long NAME_INDEX_OFFSET = HEADER.byteOffset(groupElement("nameIndexOffset"));
+    private static final long STRINGS_OFFSET = HEADER.byteOffset(groupElement("stringsOffset"));
+    private static final long ID = RECORD.byteOffset(groupElement("id"));
+    private static final long USER_ID = RECORD.byteOffset(groupElement("userId"));
+    private static final long FOOD_TYPE_ID = RECORD.byteOffset(groupElement("foodTypeId"));
+    private static final long PROTEIN = RECORD.byteOffset(groupElement("protein"));
+    private static final long CALORIES = RECORD.byteOffset(groupElement("calories"));
+    private static final long PHENYLALANINE = RECORD.byteOffset(groupElement("phenylalanine"));
+    private static final long NAME_OFFSET = RECORD.byteOffset(groupElement("nameOffset"));
+    private static final long FOOD_TYPE_NAME_OFFSET = RECORD.byteOffset(groupElement("foodTypeNameOffset"));
+    private static final long NAME_LENGTH = RECORD.byteOffset(groupElement("nameLength"));
+    private static final long FOOD_TYPE_NAME_LENGTH = RECORD.byteOffset(groupElement("foodTypeNameLength"));
+    private static final long MULTIPLIER = RECORD.byteOffset(groupElement("multiplier"));
+    private static final long NONE = -1;
+
+    private final MemorySegment segment;
+    @Getter
+    private final Path file;
+    @Getter
+    private final long generation;
+    @Getter
+    private final long count;
+    private final long nameIndexOffset;
+
+    private FoodCatalog(MemorySegment segment, Path file, long generation) {
+        if (segment.get(JAVA_INT, 0) != MAGIC || segment.get(JAVA_INT, JAVA_INT.byteSize()) != VERSION) {
+            throw new IllegalStateException("Not a food catalog file: " + file);
+        }
+        this.segment = segment.asReadOnly();
+        this.file = file;
+        this.generation = generation;
+        this.count = segment.get(JAVA_LONG, COUNT);
+        this.nameIndexOffset = segment.get(JAVA_LONG, NAME_INDEX_OFFSET);
+    }
+
+    public long byteSize() {
+        return segment.byteSize();
+    }
+
+    public Optional<FoodResponse> findById(long id, @Nullable Long currentUserId) {
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long middleId = segment.get(JAVA_LONG, record(middle) + ID);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return Optional.of(read(middle, currentUserId));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a page of foods ordered by name in the collation of the database, ties broken by id.
+     */
+    public PagedFoodResponse findPage(boolean descending, int pageNumber, int pageSize, @Nullable Long currentUserId) {
+        long from = (long) pageNumber * pageSize;
+        long to = Math.min(count, from + pageSize);
+        List<FoodResponse> content = new ArrayList<>((int) Math.max(0, to - from));
+        for (long rank = from; rank < to; rank++) {
+            long position = descending ? count - 1 - rank : rank;
+            content.add(read(segment.get(JAVA_INT, nameIndexOffset + position * JAVA_INT.byteSize()), currentUserId));
+        }
+        return PagedFoodResponse.builder()
+                .content(content)
+                .page(PageResponseMapper.INSTANCE.toModel(
+                        new PageImpl<>(content, PageRequest.of(pageNumber, pageSize), count)))
+                .build();
+    }
+
+    private FoodResponse read(long index, @Nullable Long currentUserId) {
+        long record = record(index);
+        long userId = segment.get(JAVA_LONG, record + USER_ID);
+        long phenylalanine = segment.get(JAVA_LONG, record + PHENYLALANINE);
+        int multiplier = segment.get(JAVA_INT, record + MULTIPLIER);
+        return FoodResponse.builder()
+                .id(segment.get(JAVA_LONG, record + ID))
+                .name(string(segment.get(JAVA_LONG, record + NAME_OFFSET), segment.get(JAVA_INT, record + NAME_LENGTH)))
+                .protein(BigDecimal.valueOf(segment.get(JAVA_LONG, record + PROTEIN), SCALE))
+                .calories(BigDecimal.valueOf(segment.get(JAVA_LONG, record + CALORIES), SCALE))
+                .phenylalanine(phenylalanine != Long.MIN_VALUE ? BigDecimal.valueOf(phenylalanine, SCALE) : null)
+                .foodTypeName(string(segment.get(JAVA_LONG, record + FOOD_TYPE_NAME_OFFSET),
+                        segment.get(JAVA_INT, record + FOOD_TYPE_NAME_LENGTH)))
+                .multiplier(multiplier != Integer.MIN_VALUE ? multiplier : null)
+                .canEdit(userId != NONE && currentUserId != null && userId == currentUserId)
+                .build();
+    }
+
+    private @Nullable String string(long offset, int length) {
+        if (offset == NONE) {
+            return null;
+        }
+        return new String(segment.asSlice(offset, length).toArray(JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+
+    private static long record(long index) {
+        return HEADER.byteSize() + index * RECORD.byteSize();
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Creates a catalog file sized for the given number of foods and string bytes, to be filled with
+     * {@link Writer#addFood} in id order and {@link Writer#addNameOrder} in name order.
+     */
+    public static Writer create(Path file, long count, long stringBytes) throws IOException {
+        long nameIndexOffset = record(count);
+        long stringsOffset = align(nameIndexOffset + count * JAVA_INT.byteSize());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, stringsOffset + stringBytes,
+                    Arena.ofAuto());
+            segment.set(JAVA_INT, 0, MAGIC);
+            segment.set(JAVA_INT, JAVA_INT.byteSize(), VERSION);
+            segment.set(JAVA_LONG, COUNT, count);
+            segment.set(JAVA_LONG, NAME_INDEX_OFFSET, nameIndexOffset);
+            segment.set(JAVA_LONG, STRINGS_OFFSET, stringsOffset);
+            return new Writer(segment, file, count, nameIndexOffset, stringsOffset);
+        }
+    }
+
+    public static final class Writer {
+
+        private final MemorySegment segment;
+        private final Path file;
+        private final long count;
+        private final long nameIndexOffset;
+        private final Map<Long, Long> foodTypeNameOffsets = new HashMap<>();
+        private long stringPosition;
+        private long foods;
+        private long nameOrdered;
+
+        private Writer(MemorySegment segment, Path file, long count, long nameIndexOffset, long stringsOffset) {
+            this.segment = segment;
+            this.file = file;
+            this.count = count;
+            this.nameIndexOffset = nameIndexOffset;
+            this.stringPosition = stringsOffset;
+        }
+
+        public void addFood(long id, @Nullable Long userId, @Nullable Long foodTypeId, String name, BigDecimal protein,
+                BigDecimal calories, @Nullable BigDecimal phenylalanine, @Nullable String foodTypeName,
+                @Nullable Integer multiplier) {
+            if (foods == count) {
+                throw new IllegalStateException("Food catalog is sized for " + count + " foods");
+            }
+            if (foods > 0 && segment.get(JAVA_LONG, record(foods - 1) + ID) >= id) {
+                throw new IllegalStateException("Foods must be added in ascending id order");
+            }
+            long record = record(foods++);
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            segment.set(JAVA_LONG, record + ID, id);
+            segment.set(JAVA_LONG, record + USER_ID, userId != null ? userId : NONE);
+            segment.set(JAVA_LONG, record + FOOD_TYPE_ID, foodTypeId != null ? foodTypeId : NONE);
+            segment.set(JAVA_LONG, record + PROTEIN, unscaled(protein));
+            segment.set(JAVA_LONG, record + CALORIES, unscaled(calories));
+            segment.set(JAVA_LONG, record + PHENYLALANINE,
+                    phenylalanine != null ? unscaled(phenylalanine) : Long.MIN_VALUE);
+            segment.set(JAVA_LONG, record + NAME_OFFSET, putString(nameBytes));
+            segment.set(JAVA_INT, record + NAME_LENGTH, nameBytes.length);
+            segment.set(JAVA_INT, record + MULTIPLIER, multiplier != null ? multiplier : Integer.MIN_VALUE);
+            if (foodTypeName == null) {
+                segment.set(JAVA_LONG, record + FOOD_TYPE_NAME_OFFSET, NONE);
+                segment.set(JAVA_INT, record + FOOD_TYPE_NAME_LENGTH, 0);
+                return;
+            }
+            byte[] foodTypeNameBytes = foodTypeName.getBytes(StandardCharsets.UTF_8);
+            long foodTypeNameOffset = foodTypeId != null
+                    ? foodTypeNameOffsets.computeIfAbsent(foodTypeId, _ -> putString(foodTypeNameBytes))
+                    : putString(foodTypeNameBytes);
+            segment.set(JAVA_LONG, record + FOOD_TYPE_NAME_OFFSET, foodTypeNameOffset);
+            segment.set(JAVA_INT, record + FOOD_TYPE_NAME_LENGTH, foodTypeNameBytes.length);
+        }
+
+        /**
+         * Appends the food with the given id, which must already be added, to the name index.
+         */
+        public void addNameOrder(long id) {
+            long low = 0;
+            long high = foods - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long middleId = segment.get(JAVA_LONG, record(middle) + ID);
+                if (middleId < id) {
+                    low = middle + 1;
+                } else if (middleId > id) {
+                    high = middle - 1;
+                } else {
+                    segment.set(JAVA_INT, nameIndexOffset + nameOrdered++ * JAVA_INT.byteSize(), (int) middle);
+                    return;
+                }
+            }
+            throw new IllegalStateException("Food " + id + " is not in the catalog");
+        }
+
+        public FoodCatalog finish(long generation) {
+            if (foods != count || nameOrdered != count) {
+                throw new IllegalStateException("Food catalog is incomplete, " + foods + " foods and " + nameOrdered
+                        + " name entries of " + count);
+            }
+            segment.force();
+            return new FoodCatalog(segment, file, generation);
+        }
+
+        private long putString(byte[] bytes) {
+            long offset = stringPosition;
+            MemorySegment.copy(bytes, 0, segment, JAVA_BYTE, offset, bytes.length);
+            stringPosition += bytes.length;
+            return offset;
+        }
+
+        private static long unscaled(BigDecimal value) {
+            return Objects.requireNonNull(value).setScale(SCALE).unscaledValue().longValueExact();
+        }
+
+    }
+
+}
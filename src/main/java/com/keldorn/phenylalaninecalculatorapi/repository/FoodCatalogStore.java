@@ -0,0 +1,172 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.FoodCatalogProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+/**
+ * Keeps an off-heap {@link FoodCatalog} of all foods, rebuilt from MySQL whenever the {@code foods} or
+ * {@code foodPages} caches are invalidated, locally or by another node. A catalog is only handed out while it was
+ * built at the current cache generation, so reads fall back to the database between a change and the rebuild.
+ */
+@Slf4j
+@Repository
+public class FoodCatalogStore implements DisposableBean {
+
+    private static final String FOOD_COLUMNS = "SELECT f.food_id, f.user_id, f.food_type_id, f.name, f.protein, "
+            + "f.calories, f.phenylalanine, t.name AS food_type_name, t.multiplier FROM food f "
+            + "LEFT JOIN food_type t ON t.food_type_id = f.food_type_id WHERE f.is_deleted = false ORDER BY f.food_id";
+
+    private final FoodCatalogProperties properties;
+    private final CoherentCacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate buildTransaction;
+    private final AtomicReference<FoodCatalog> catalog = new AtomicReference<>();
+
+    public FoodCatalogStore(FoodCatalogProperties properties, CoherentCacheManager cacheManager,
+            DataSource dataSource, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Streams result sets row by row on MySQL instead of buffering them
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        // Not read-only, so the build reads the primary and cannot miss a change the generation already reflects
+        this.buildTransaction = new TransactionTemplate(transactionManager);
+        this.buildTransaction.setName("food-catalog-build");
+        this.buildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        Gauge.builder("catalog.foods", catalog, c -> c.get() != null ? c.get().getCount() : 0)
+                .description("Number of foods in the off-heap catalog")
+                .register(meterRegistry);
+        Gauge.builder("catalog.mapped", catalog, c -> c.get() != null ? c.get().byteSize() : 0)
+                .description("Size of the memory-mapped catalog file")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the catalog if it reflects every change to the foods known to this node.
+     */
+    public Optional<FoodCatalog> current() {
+        FoodCatalog current = catalog.get();
+        return current != null && current.getGeneration() == generation() ? Optional.of(current) : Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.rebuild-interval:5s}")
+    public void rebuildIfStale() {
+        if (!properties.isEnabled() || current().isPresent()) {
+            return;
+        }
+        long generation = generation();
+        try {
+            long start = System.nanoTime();
+            FoodCatalog rebuilt = build(generation);
+            FoodCatalog previous = catalog.getAndSet(rebuilt);
+            log.info("Rebuilt food catalog with {} foods in {} ms", rebuilt.getCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+            if (previous != null) {
+                delete(previous.getFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not rebuild food catalog: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        FoodCatalog current = catalog.getAndSet(null);
+        if (current != null) {
+            delete(current.getFile());
+        }
+    }
+
+    private FoodCatalog build(long generation) throws IOException {
+        Path directory = Files.createDirectories(properties.getDirectory());
+        if (catalog.get() == null) {
+            clear(directory);
+        }
+        Path file = directory.resolve("food-catalog-" + System.nanoTime() + ".bin");
+        try {
+            return buildTransaction.execute(_ -> {
+                long count = queryForLong("SELECT COUNT(*) FROM food WHERE is_deleted = false");
+                long stringBytes = queryForLong("SELECT COALESCE(SUM(LENGTH(name)), 0) FROM food "
+                        + "WHERE is_deleted = false")
+                        + queryForLong("SELECT COALESCE(SUM(LENGTH(name)), 0) FROM food_type");
+                FoodCatalog.Writer writer = create(file, count, stringBytes);
+                jdbcTemplate.query(FOOD_COLUMNS, rs -> {
+                    writer.addFood(rs.getLong("food_id"), rs.getObject("user_id", Long.class),
+                            rs.getObject("food_type_id", Long.class), rs.getString("name"),
+                            rs.getBigDecimal("protein"), rs.getBigDecimal("calories"),
+                            rs.getBigDecimal("phenylalanine"), rs.getString("food_type_name"),
+                            rs.getObject("multiplier", Integer.class));
+                });
+                jdbcTemplate.query("SELECT food_id FROM food WHERE is_deleted = false ORDER BY name, food_id",
+                        rs -> {
+                            writer.addNameOrder(rs.getLong(1));
+                        });
+                return writer.finish(generation);
+            });
+        } catch (RuntimeException e) {
+            delete(file);
+            throw e;
+        }
+    }
+
+    private long queryForLong(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value != null ? value : 0;
+    }
+
+    private long generation() {
+        return cacheManager.getGeneration("foods") + cacheManager.getGeneration("foodPages");
+    }
+
+    private static FoodCatalog.Writer create(Path file, long count, long stringBytes) {
+        try {
+            return FoodCatalog.create(file, count, stringBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void clear(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith("food-catalog-"))
+                    .forEach(FoodCatalogStore::delete);
+        }
+    }
+
+    /**
+     * Readers still holding the catalog keep the mapping, Linux only frees the file once it is unmapped.
+     */
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete food catalog file {}: {}", file, e.getMessage());
+        }
+    }
+
+}
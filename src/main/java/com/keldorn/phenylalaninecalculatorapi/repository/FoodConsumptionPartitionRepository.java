@@ -0,0 +1,115 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Maintains the monthly {@code RANGE (TO_DAYS(consumed_at))} partitions of the {@code food_consumption} table.
+ * <p>
+ * Monthly partitions are named {@code pYYYYMM}, rows older than the first monthly partition live in
+ * {@code p_initial} and {@code p_future} catches everything past the last monthly partition.
+ * <p>
+ * The repository works on the primary; {@link #on} returns one working on another shard, since every shard holds
+ * its own partitioned {@code food_consumption} table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FoodConsumptionPartitionRepository {
+
+    public static final String FUTURE_PARTITION = "p_future";
+    public static final String STAGING_TABLE = "food_consumption_archive_staging";
+
+    private static final long TO_DAYS_EPOCH_OFFSET = 719_528L;
+    private static final String COLUMNS = "food_consumption_id, amount, phenylalanine_amount, consumed_at, food_id, "
+            + "food_name, food_phenylalanine, user_id, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Partition(String name, Long upperBoundDays) {
+
+        public boolean isBefore(LocalDate date) {
+            return upperBoundDays != null && upperBoundDays <= toDays(date);
+        }
+
+        public boolean covers(LocalDate date) {
+            return upperBoundDays != null && upperBoundDays >= toDays(date);
+        }
+
+    }
+
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query("""
+                        SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+                        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'food_consumption'
+                        AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION""",
+                (rs, _) -> {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    Long upperBound = "MAXVALUE".equalsIgnoreCase(description) ? null : Long.valueOf(description);
+                    return new Partition(rs.getString("PARTITION_NAME"), upperBound);
+                });
+    }
+
+    public void splitFuturePartition(String name, LocalDate upperBound) {
+        jdbcTemplate.execute("ALTER TABLE food_consumption REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                + "PARTITION " + name + " VALUES LESS THAN (" + toDays(upperBound) + "), "
+                + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public FoodConsumptionPartitionRepository on(DataSource dataSource) {
+        return new FoodConsumptionPartitionRepository(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * Moves the rows of a partition to the archive. The partition is first exchanged with an empty staging table,
+     * which swaps their rows in one step, so a row written to the partition either moves with it or stays in it and
+     * is never lost between the copy and the drop.
+     *
+     * @return the number of rows copied to the archive
+     */
+    public int moveToArchive(String name) {
+        jdbcTemplate.execute("CREATE TABLE " + STAGING_TABLE + " LIKE food_consumption");
+        jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " REMOVE PARTITIONING");
+        jdbcTemplate.execute("ALTER TABLE food_consumption EXCHANGE PARTITION " + name + " WITH TABLE "
+                + STAGING_TABLE);
+        return archiveStaging();
+    }
+
+    /**
+     * Copies the rows of the staging table to the archive and drops it, which also finishes a move interrupted
+     * after the exchange. Copying is idempotent, so rows already archived are skipped.
+     *
+     * @return the number of rows copied to the archive
+     */
+    public int archiveStaging() {
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, STAGING_TABLE);
+        if (tables == null || tables == 0) {
+            return 0;
+        }
+        int copied = jdbcTemplate.update("INSERT IGNORE INTO food_consumption_archive (" + COLUMNS + ") SELECT "
+                + COLUMNS + " FROM " + STAGING_TABLE);
+        jdbcTemplate.execute("DROP TABLE " + STAGING_TABLE);
+        return copied;
+    }
+
+    public boolean isEmpty(String name) {
+        return Boolean.FALSE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM food_consumption PARTITION (" + name + "))", Boolean.class));
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE food_consumption DROP PARTITION " + name);
+    }
+
+    private static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_EPOCH_OFFSET;
+    }
+
+}
@@ -3,26 +3,55 @@ package com.keldorn.phenylalaninecalculatorapi.repository;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodConsumption;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 public interface FoodConsumptionRepository extends JpaRepository<FoodConsumption, Long> {
 
-    @EntityGraph(attributePaths = {"food"})
+    String COLUMNS = "fc.food_consumption_id, fc.amount, fc.phenylalanine_amount, fc.consumed_at, fc.food_id, "
+            + "fc.food_name, fc.food_phenylalanine, fc.user_id, fc.created_at, fc.updated_at";
+    String NOT_IN_HOT_TABLE = "AND NOT EXISTS (SELECT 1 FROM food_consumption hot "
+            + "WHERE hot.food_consumption_id = fc.food_consumption_id AND hot.consumed_at = fc.consumed_at) ";
+
     @Query("FROM FoodConsumption fc WHERE fc.user.userId = ?1 AND fc.consumedAt >= ?2 AND fc.consumedAt < ?3")
     Page<FoodConsumption> findAllByUserAndConsumedAtBetween(Long userId, Instant start, Instant end, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"food", "user"})
+    @Query("FROM FoodConsumption fc WHERE fc.user.userId = ?1 AND fc.consumedAt >= ?2 ORDER BY fc.consumedAt, fc.id")
+    List<FoodConsumption> findRecentByUser(Long userId, Instant from, Limit limit);
+
+    /**
+     * Reads the range from the hot and the archive table. Rows copied to the archive whose partition is not dropped
+     * yet are read from the hot table only.
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM food_consumption fc "
+            + "WHERE fc.user_id = ?1 AND fc.consumed_at >= ?2 AND fc.consumed_at < ?3 "
+            + "UNION ALL SELECT " + COLUMNS + " FROM food_consumption_archive fc "
+            + "WHERE fc.user_id = ?1 AND fc.consumed_at >= ?2 AND fc.consumed_at < ?3 " + NOT_IN_HOT_TABLE
+            + "ORDER BY consumed_at, food_consumption_id",
+            countQuery = "SELECT (SELECT COUNT(*) FROM food_consumption fc "
+                    + "WHERE fc.user_id = ?1 AND fc.consumed_at >= ?2 AND fc.consumed_at < ?3) "
+                    + "+ (SELECT COUNT(*) FROM food_consumption_archive fc "
+                    + "WHERE fc.user_id = ?1 AND fc.consumed_at >= ?2 AND fc.consumed_at < ?3 "
+                    + NOT_IN_HOT_TABLE + ")",
+            nativeQuery = true)
+    Page<FoodConsumption> findAllWithArchivedByUserAndConsumedAtBetween(Long userId, Instant start, Instant end,
+            Pageable pageable);
+
     Optional<FoodConsumption> findByIdAndUser_UserId(Long id, Long userId);
 
     @Modifying
     @Query("DELETE FROM FoodConsumption fc WHERE fc.user.userId = ?1")
     int deleteFoodConsumptionByUserId(Long userId);
 
+    @Modifying
+    @Query(value = "DELETE FROM food_consumption_archive WHERE user_id = ?1", nativeQuery = true)
+    int deleteArchivedFoodConsumptionByUserId(Long userId);
+
 }
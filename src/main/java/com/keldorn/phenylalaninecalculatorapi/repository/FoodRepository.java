@@ -2,9 +2,13 @@ package com.keldorn.phenylalaninecalculatorapi.repository;
 
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.Food;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -21,6 +25,43 @@ public interface FoodRepository extends JpaRepository<Food, Long>, JpaSpecificat
     @Query("UPDATE Food f SET f.user.userId = :updatedUserId WHERE f.user.userId = :userId")
     int updateFoodUser(@Param("userId") Long userId, @Param("updatedUserId") Long updatedUserId);
 
+    @Modifying
+    @Query(value = "UPDATE food_tombstone SET user_id = :updatedUserId WHERE user_id = :userId", nativeQuery = true)
+    int updateFoodTombstoneUser(@Param("userId") Long userId, @Param("updatedUserId") Long updatedUserId);
+
+    /**
+     * Copies soft-deleted foods without consumptions since {@code since}, live or archived, on this database.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO food_tombstone "
+            + "(food_id, name, protein, calories, phenylalanine, food_type_id, user_id, created_at, updated_at) "
+            + "SELECT f.food_id, f.name, f.protein, f.calories, f.phenylalanine, f.food_type_id, f.user_id, "
+            + "f.created_at, f.updated_at FROM food f WHERE f.is_deleted = true AND NOT EXISTS "
+            + "(SELECT 1 FROM food_consumption fc WHERE fc.food_id = f.food_id AND fc.consumed_at >= :since) "
+            + "AND NOT EXISTS (SELECT 1 FROM food_consumption_archive fca "
+            + "WHERE fca.food_id = f.food_id AND fca.consumed_at >= :since)",
+            nativeQuery = true)
+    int copyDeletedToTombstone(@Param("since") Instant since);
+
+    /**
+     * Like {@link #copyDeletedToTombstone}, but also keeps the given foods, which are referenced on other shards.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO food_tombstone "
+            + "(food_id, name, protein, calories, phenylalanine, food_type_id, user_id, created_at, updated_at) "
+            + "SELECT f.food_id, f.name, f.protein, f.calories, f.phenylalanine, f.food_type_id, f.user_id, "
+            + "f.created_at, f.updated_at FROM food f WHERE f.is_deleted = true AND f.food_id NOT IN (:referenced) "
+            + "AND NOT EXISTS "
+            + "(SELECT 1 FROM food_consumption fc WHERE fc.food_id = f.food_id AND fc.consumed_at >= :since) "
+            + "AND NOT EXISTS (SELECT 1 FROM food_consumption_archive fca "
+            + "WHERE fca.food_id = f.food_id AND fca.consumed_at >= :since)",
+            nativeQuery = true)
+    int copyDeletedToTombstoneExcept(@Param("since") Instant since, @Param("referenced") Collection<Long> referenced);
+
+    @Modifying
+    @Query(value = "DELETE f FROM food f JOIN food_tombstone t ON t.food_id = f.food_id", nativeQuery = true)
+    int deleteTombstoned();
+
     @NonNull
     @Override
     @EntityGraph(attributePaths = {"foodType"})
@@ -32,4 +73,14 @@ public interface FoodRepository extends JpaRepository<Food, Long>, JpaSpecificat
     @EntityGraph(attributePaths = {"foodType"})
     Page<Food> findAll(@NonNull Specification<Food> spec, @NonNull Pageable pageable);
 
+    @Query("SELECT new com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository$FoodNutrients("
+            + "f.phenylalanine, f.name, f.isDeleted) FROM Food f WHERE f.id = :id")
+    Optional<FoodNutrients> findNutrientsById(@Param("id") Long id);
+
+    /**
+     * The columns of a food the consumption write path needs, small enough to be cached per food id.
+     */
+    record FoodNutrients(@Nullable BigDecimal phenylalanine, String name, boolean deleted) {
+    }
+
 }
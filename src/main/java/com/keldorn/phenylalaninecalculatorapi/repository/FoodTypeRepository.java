@@ -18,6 +18,24 @@ public interface FoodTypeRepository extends JpaRepository<FoodType, Long> {
     @Query(value = "UPDATE food_type SET user_id = :updatedUserId WHERE user_id = :userId", nativeQuery = true)
     int updateFoodTypeUser(@Param("userId") Long userId, @Param("updatedUserId") Long updatedUserId);
 
+    @Modifying
+    @Query(value = "UPDATE food_type_tombstone SET user_id = :updatedUserId WHERE user_id = :userId",
+            nativeQuery = true)
+    int updateFoodTypeTombstoneUser(@Param("userId") Long userId, @Param("updatedUserId") Long updatedUserId);
+
+    @Modifying
+    @Query(value = "INSERT INTO food_type_tombstone "
+            + "(food_type_id, name, multiplier, user_id, created_at, updated_at) "
+            + "SELECT ft.food_type_id, ft.name, ft.multiplier, ft.user_id, ft.created_at, ft.updated_at "
+            + "FROM food_type ft WHERE ft.is_deleted = true AND NOT EXISTS "
+            + "(SELECT 1 FROM food f WHERE f.food_type_id = ft.food_type_id)", nativeQuery = true)
+    int copyDeletedToTombstone();
+
+    @Modifying
+    @Query(value = "DELETE ft FROM food_type ft JOIN food_type_tombstone t ON t.food_type_id = ft.food_type_id",
+            nativeQuery = true)
+    int deleteTombstoned();
+
     @Override
     @NullMarked
     @Query("FROM FoodType ft WHERE ft.isDeleted = false")
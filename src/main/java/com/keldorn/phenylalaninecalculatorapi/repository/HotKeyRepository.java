@@ -0,0 +1,93 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class HotKeyRepository {
+
+    private static final int MAX_QUERY_LENGTH = 500;
+    private static final int MAX_SORT_LENGTH = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the hits in one batch. Values longer than their column are truncated, the row is still found by the
+     * hash of the full key.
+     */
+    public void addHits(Map<HotKey, Long> hits) {
+        jdbcTemplate.batchUpdate("INSERT INTO cache_hot_key (key_hash, cache_name, user_id, query, sort, "
+                        + "page_number, page_size, entity_id, hits, last_seen) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(6)) "
+                        + "ON DUPLICATE KEY UPDATE hits = hits + VALUES(hits), last_seen = VALUES(last_seen)",
+                hits.entrySet().stream()
+                        .map(entry -> {
+                            HotKey key = entry.getKey();
+                            return new Object[]{key.hash(), key.cacheName(), key.userId(),
+                                    truncate(key.query(), MAX_QUERY_LENGTH), truncate(key.sort(), MAX_SORT_LENGTH),
+                                    key.pageNumber(), key.pageSize(), key.entityId(), entry.getValue()};
+                        })
+                        .toList());
+    }
+
+    public List<HotKey> findHottest(int limit) {
+        return jdbcTemplate.query("SELECT cache_name, user_id, query, sort, page_number, page_size, entity_id "
+                        + "FROM cache_hot_key ORDER BY hits DESC LIMIT ?",
+                (rs, _) -> new HotKey(rs.getString("cache_name"), rs.getLong("user_id"), rs.getString("query"),
+                        rs.getString("sort"), rs.getObject("page_number", Integer.class),
+                        rs.getObject("page_size", Integer.class), rs.getObject("entity_id", Long.class)),
+                limit);
+    }
+
+    public int deleteNotSeenSince(Duration retention) {
+        return jdbcTemplate.update("DELETE FROM cache_hot_key WHERE last_seen < NOW(6) - INTERVAL ? SECOND",
+                retention.toSeconds());
+    }
+
+    private static @Nullable String truncate(@Nullable String value, int maxLength) {
+        if (value == null || value.codePointCount(0, value.length()) <= maxLength) {
+            return value;
+        }
+        return value.substring(0, value.offsetByCodePoints(0, maxLength));
+    }
+
+    /**
+     * A cached read as issued by a user, with the request parameters of the cache it goes to.
+     */
+    public record HotKey(String cacheName, Long userId, @Nullable String query, @Nullable String sort,
+            @Nullable Integer pageNumber, @Nullable Integer pageSize, @Nullable Long entityId) {
+
+        public static HotKey page(String cacheName, Long userId, @Nullable String query, @Nullable String sort,
+                Integer pageNumber, Integer pageSize) {
+            return new HotKey(cacheName, userId, query, sort, pageNumber, pageSize, null);
+        }
+
+        public static HotKey entity(String cacheName, Long userId, Long entityId) {
+            return new HotKey(cacheName, userId, null, null, null, null, entityId);
+        }
+
+        private byte[] hash() {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(String.join("\u0000", cacheName,
+                                String.valueOf(userId), String.valueOf(query), String.valueOf(sort),
+                                String.valueOf(pageNumber), String.valueOf(pageSize), String.valueOf(entityId))
+                        .getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.RecentConsumptionProperties;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodConsumption;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.FoodConsumptionResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.PagedFoodConsumptionResponse;
+import com.keldorn.phenylalaninecalculatorapi.mapper.PageResponseMapper;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardTransactions;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps the food consumptions of active users in memory from the start of their previous local day on, so listings
+ * of today and yesterday are served without the paged range query and its count. Writes are applied to the kept
+ * consumptions after their transaction commits, by consumption id so applying one twice is harmless. Each write
+ * also publishes the user to the {@code cache_invalidation} change-log, on the primary, and other nodes drop the
+ * user when they replay it. The TTL only bounds what a lost invalidation can leave behind.
+ * <p>
+ * Loads query the database outside the cache and store their result only if no write or invalidation of the user
+ * was applied meanwhile, tracked by a version counter per stripe of users, so a load cannot bring back consumptions
+ * a concurrent write already changed. They read from the primary of the user's shard: a replica can still miss a
+ * write made on another node after its invalidation arrived here, and the stale list would be kept for the TTL.
+ */
+@Repository
+public class RecentConsumptionStore {
+
+    public static final String CACHE_NAME = "recentConsumptions";
+
+    private static final Comparator<RecentConsumption> CONSUMPTION_ORDER =
+            Comparator.comparing(RecentConsumption::consumedAt).thenComparingLong(RecentConsumption::id);
+    private static final int VERSION_STRIPES = 64;
+
+    private final RecentConsumptionProperties properties;
+    private final FoodConsumptionRepository foodConsumptionRepository;
+    private final CoherentCacheManager cacheManager;
+    private final ShardTransactions shardTransactions;
+    private final Cache<Long, RecentConsumptions> users;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public RecentConsumptionStore(RecentConsumptionProperties properties,
+            FoodConsumptionRepository foodConsumptionRepository, CoherentCacheManager cacheManager,
+            ShardTransactions shardTransactions, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.foodConsumptionRepository = foodConsumptionRepository;
+        this.cacheManager = cacheManager;
+        this.shardTransactions = shardTransactions;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumUsers())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+        cacheManager.registerExternalCache(CACHE_NAME, this::evictLocally);
+    }
+
+    /**
+     * Returns the page of consumptions in {@code [start, end)}, or empty when the range starts before the previous
+     * day in {@code zoneId} or the user has too many recent consumptions to keep. Loads the consumptions of the user
+     * from the primary on a miss.
+     */
+    public Optional<PagedFoodConsumptionResponse> findPage(Long userId, Instant start, Instant end, ZoneId zoneId,
+            Pageable pageable) {
+        Instant from = LocalDate.now(zoneId).minusDays(1).atStartOfDay(zoneId).toInstant();
+        if (!properties.isEnabled() || start.isBefore(from)) {
+            return Optional.empty();
+        }
+        RecentConsumptions recent = users.getIfPresent(userId);
+        if (recent == null || start.isBefore(recent.from())) {
+            recent = load(userId, from);
+        }
+        if (recent.overflow()) {
+            return Optional.empty();
+        }
+        List<RecentConsumption> inRange = recent.consumptions().stream()
+                .filter(consumption -> !consumption.consumedAt().isBefore(start)
+                        && consumption.consumedAt().isBefore(end))
+                .toList();
+        List<FoodConsumptionResponse> content = inRange.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(consumption -> consumption.toResponse(zoneId))
+                .toList();
+        return Optional.of(PagedFoodConsumptionResponse.builder()
+                .content(new ArrayList<>(content))
+                .page(PageResponseMapper.INSTANCE.toModel(new PageImpl<>(content, pageable, inRange.size())))
+                .build());
+    }
+
+    /**
+     * Adds or replaces a consumption of the user once the current transaction commits. A user that grows past the
+     * maximum number of consumptions is dropped and read from the database again.
+     */
+    public void putAfterCommit(Long userId, FoodConsumption foodConsumption) {
+        afterCommit(() -> update(userId, recent -> {
+            RecentConsumptions updated = recent.with(RecentConsumption.of(foodConsumption));
+            return updated.consumptions().size() > properties.getMaximumEntriesPerUser() ? null : updated;
+        }));
+        publish(userId);
+    }
+
+    /**
+     * Removes a consumption of the user once the current transaction commits.
+     */
+    public void removeAfterCommit(Long userId, Long consumptionId) {
+        afterCommit(() -> update(userId, recent -> recent.without(consumptionId)));
+        publish(userId);
+    }
+
+    /**
+     * Applies an invalidation published by another node: drops the user of a {@code Long} key, or every user.
+     */
+    private void evictLocally(@Nullable Object key) {
+        if (key instanceof Long userId) {
+            update(userId, _ -> null);
+            return;
+        }
+        for (int stripe = 0; stripe < VERSION_STRIPES; stripe++) {
+            versions.incrementAndGet(stripe);
+        }
+        users.invalidateAll();
+    }
+
+    /**
+     * Loads the consumptions of the user and keeps them unless the user was written or invalidated during the
+     * query. The version is compared under the lock of the entry, which writes also take to bump it.
+     */
+    private RecentConsumptions load(Long userId, Instant from) {
+        long version = versions.get(stripe(userId));
+        int maximum = properties.getMaximumEntriesPerUser();
+        List<FoodConsumption> consumptions = shardTransactions.readOnUserShardPrimary(userId,
+                () -> foodConsumptionRepository.findRecentByUser(userId, from, Limit.of(maximum + 1)));
+        RecentConsumptions loaded = consumptions.size() > maximum
+                ? new RecentConsumptions(from, true, List.of())
+                : new RecentConsumptions(from, false, consumptions.stream().map(RecentConsumption::of).toList());
+        users.asMap().compute(userId, (_, current) -> versions.get(stripe(userId)) == version ? loaded : current);
+        return loaded;
+    }
+
+    private void update(Long userId, Function<RecentConsumptions, @Nullable RecentConsumptions> update) {
+        users.asMap().compute(userId, (_, recent) -> {
+            versions.incrementAndGet(stripe(userId));
+            return recent != null ? update.apply(recent) : null;
+        });
+    }
+
+    private void publish(Long userId) {
+        shardTransactions.writeOnPrimary(() -> cacheManager.publishEviction(CACHE_NAME, userId));
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), VERSION_STRIPES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record RecentConsumption(long id, String foodName, BigDecimal amount, BigDecimal phenylalanineAmount,
+                                     Instant consumedAt) {
+
+        private static RecentConsumption of(FoodConsumption foodConsumption) {
+            return new RecentConsumption(foodConsumption.getId(), foodConsumption.getFoodName(),
+                    foodConsumption.getAmount(), foodConsumption.getPhenylalanineAmount(),
+                    foodConsumption.getConsumedAt());
+        }
+
+        private FoodConsumptionResponse toResponse(ZoneId zoneId) {
+            return FoodConsumptionResponse.builder()
+                    .id(id)
+                    .foodName(foodName)
+                    .amount(amount)
+                    .phenylalanineAmount(phenylalanineAmount)
+                    .consumedAt(consumedAt.atZone(zoneId).toLocalDateTime())
+                    .build();
+        }
+
+    }
+
+    /**
+     * The consumptions of a user since {@code from}, ordered by consumption time. {@code overflow} marks users with
+     * more than the configured maximum, which are not kept.
+     */
+    private record RecentConsumptions(Instant from, boolean overflow, List<RecentConsumption> consumptions) {
+
+        private RecentConsumptions with(RecentConsumption consumption) {
+            if (overflow || consumption.consumedAt().isBefore(from)) {
+                return this;
+            }
+            List<RecentConsumption> updated = new ArrayList<>(without(consumption.id()).consumptions());
+            updated.add(consumption);
+            updated.sort(CONSUMPTION_ORDER);
+            return new RecentConsumptions(from, false, List.copyOf(updated));
+        }
+
+        private RecentConsumptions without(long consumptionId) {
+            return new RecentConsumptions(from, overflow, consumptions.stream()
+                    .filter(consumption -> consumption.id() != consumptionId)
+                    .toList());
+        }
+
+    }
+
+}
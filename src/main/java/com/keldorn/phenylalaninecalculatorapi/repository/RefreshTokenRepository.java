@@ -9,12 +9,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     void deleteByUser_UserId(Long userId);
 
     void deleteByUser_UserIdAndExpiryDateBefore(Long userId, ZonedDateTime now);
 
-    void deleteByToken(String refreshToken);
+    void deleteByTokenHash(byte[] tokenHash);
 
 }
@@ -0,0 +1,29 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ShardMapRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<Integer, String> findAll() {
+        return jdbcTemplate.query("SELECT bucket, shard_id FROM shard_map",
+                        (rs, _) -> Map.entry(rs.getInt("bucket"), rs.getString("shard_id")))
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public void assign(int bucket, String shardId) {
+        jdbcTemplate.update("INSERT INTO shard_map (bucket, shard_id) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE shard_id = VALUES(shard_id)", bucket, shardId);
+    }
+
+}
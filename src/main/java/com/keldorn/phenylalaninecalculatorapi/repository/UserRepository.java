@@ -4,12 +4,17 @@ import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @EntityGraph(attributePaths = {"roles"})
     Optional<User> findByUsername(String username);
 
+    @EntityGraph(attributePaths = {"roles"})
+    Optional<User> findWithRolesByUserId(Long userId);
+
     Optional<User> findByUsernameOrEmail(String username, String email);
 
     boolean existsByEmail(String email);
@@ -0,0 +1,426 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
+import com.keldorn.phenylalaninecalculatorapi.service.JwtService.AccessPrincipal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Verifies access tokens in the exact shape {@link JwtService} issues them without the generic JWT parser: the
+ * HMAC is computed by a per-thread {@link Mac} into reused buffers and compared in constant time, and only the
+ * {@code sub}, {@code username}, {@code roles}, {@code type} and {@code exp} claims are read. Authority lists are
+ * interned by their encoded roles, so tokens of users with the same roles share one list.
+ * <p>
+ * Returns {@code null} for any token it does not fully understand, e.g. another header, escaped strings or claims
+ * it does not know, and the caller verifies those with the generic parser. A token it does understand is either
+ * returned or rejected exactly as the generic parser would.
+ */
+final class AccessTokenVerifier {
+
+    static final int MAX_AUTHORITY_SETS = 64;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final byte[] BASE64_URL_VALUES = base64UrlValues();
+    private static final byte[] ACCESS_TYPE = ascii("ACCESS");
+    private static final byte[] JTI = ascii("jti");
+    private static final byte[] IAT = ascii("iat");
+    private static final byte[] EXP = ascii("exp");
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] USERNAME = ascii("username");
+    private static final byte[] ROLES = ascii("roles");
+    private static final byte[] TYPE = ascii("type");
+
+    private final @Nullable String header;
+    private final ThreadLocal<State> states;
+    private volatile AuthoritySet[] authoritySets = new AuthoritySet[0];
+
+    AccessTokenVerifier(SecretKey signingKey) {
+        String algorithm = switch (signingKey.getAlgorithm()) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> null;
+        };
+        this.header = algorithm != null ? ENCODER.encodeToString(ascii("{\"alg\":\"" + algorithm + "\"}")) : null;
+        this.states = ThreadLocal.withInitial(() -> new State(mac(signingKey)));
+    }
+
+    @Nullable AccessPrincipal verify(String token) {
+        int headerEnd = header != null ? header.length() : -1;
+        int length = token.length();
+        if (header == null || length <= headerEnd || token.charAt(headerEnd) != '.' || !token.startsWith(header)) {
+            return null;
+        }
+        State state = states.get();
+        byte[] bytes = state.token(length);
+        int payloadEnd = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (i != headerEnd) {
+                    if (payloadEnd >= 0) {
+                        return null;
+                    }
+                    payloadEnd = i;
+                }
+            } else if (c >= BASE64_URL_VALUES.length || BASE64_URL_VALUES[c] < 0) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+        }
+        if (payloadEnd < 0) {
+            return null;
+        }
+        verifySignature(state, bytes, payloadEnd, length);
+        byte[] json = state.claims((payloadEnd - headerEnd) * 3 / 4 + 1);
+        int jsonLength = decode(bytes, headerEnd + 1, payloadEnd, json);
+        ClaimsReader claims = state.reader;
+        if (jsonLength < 0 || !claims.read(json, jsonLength) || claims.typeEnd < 0 || claims.expiration < 0) {
+            return null;
+        }
+        if (!Arrays.equals(json, claims.typeStart, claims.typeEnd, ACCESS_TYPE, 0, ACCESS_TYPE.length)) {
+            throw new InvalidJwtTokenReceivedException("Invalid token type");
+        }
+        if (System.currentTimeMillis() > claims.expiration * 1000) {
+            throw new InvalidJwtTokenReceivedException("Invalid token received");
+        }
+        long userId = claims.subject();
+        if (userId < 0) {
+            return null;
+        }
+        String username = claims.usernameEnd >= 0
+                ? new String(json, claims.usernameStart, claims.usernameEnd - claims.usernameStart,
+                        StandardCharsets.UTF_8)
+                : null;
+        return new AccessPrincipal(userId, username, authorities(claims),
+                Instant.ofEpochSecond(claims.expiration));
+    }
+
+    private static void verifySignature(State state, byte[] bytes, int payloadEnd, int length) {
+        try {
+            state.mac.update(bytes, 0, payloadEnd);
+            state.mac.doFinal(state.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute token signature", e);
+        }
+        int encodedLength = ENCODER.encode(state.signature, state.encodedSignature);
+        int signatureStart = payloadEnd + 1;
+        if (length - signatureStart != encodedLength) {
+            throw new InvalidJwtTokenReceivedException("Invalid token received");
+        }
+        int difference = 0;
+        for (int i = 0; i < encodedLength; i++) {
+            difference |= state.encodedSignature[i] ^ bytes[signatureStart + i];
+        }
+        if (difference != 0) {
+            throw new InvalidJwtTokenReceivedException("Invalid token received");
+        }
+    }
+
+    private List<SimpleGrantedAuthority> authorities(ClaimsReader claims) {
+        if (claims.rolesEnd < 0) {
+            return List.of();
+        }
+        for (AuthoritySet set : authoritySets) {
+            if (Arrays.equals(set.roles(), 0, set.roles().length, claims.json, claims.rolesStart, claims.rolesEnd)) {
+                return set.authorities();
+            }
+        }
+        List<SimpleGrantedAuthority> authorities = claims.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        intern(new AuthoritySet(Arrays.copyOfRange(claims.json, claims.rolesStart, claims.rolesEnd), authorities));
+        return authorities;
+    }
+
+    private synchronized void intern(AuthoritySet set) {
+        AuthoritySet[] sets = authoritySets;
+        if (sets.length < MAX_AUTHORITY_SETS) {
+            AuthoritySet[] interned = Arrays.copyOf(sets, sets.length + 1);
+            interned[sets.length] = set;
+            authoritySets = interned;
+        }
+    }
+
+    /**
+     * Decodes unpadded base64url whose characters were already checked, returning the decoded length or -1 for
+     * a length no encoder produces.
+     */
+    private static int decode(byte[] source, int from, int to, byte[] target) {
+        int length = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            bits = bits << 6 | BASE64_URL_VALUES[source[i]];
+            if (++count == 4) {
+                target[length++] = (byte) (bits >> 16);
+                target[length++] = (byte) (bits >> 8);
+                target[length++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 1) {
+            return -1;
+        } else if (count == 2) {
+            target[length++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            target[length++] = (byte) (bits >> 10);
+            target[length++] = (byte) (bits >> 2);
+        }
+        return length;
+    }
+
+    private static Mac mac(SecretKey signingKey) {
+        try {
+            Mac mac = Mac.getInstance(signingKey.getAlgorithm());
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + signingKey.getAlgorithm(), e);
+        }
+    }
+
+    private static byte[] base64UrlValues() {
+        byte[] values = new byte[128];
+        Arrays.fill(values, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            values[alphabet.charAt(i)] = (byte) i;
+        }
+        return values;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record AuthoritySet(byte[] roles, List<SimpleGrantedAuthority> authorities) {}
+
+    /**
+     * Buffers reused by every token verified on a thread.
+     */
+    private static final class State {
+
+        private final Mac mac;
+        private final byte[] signature;
+        private final byte[] encodedSignature;
+        private final ClaimsReader reader = new ClaimsReader();
+        private byte[] token = new byte[512];
+        private byte[] claims = new byte[512];
+
+        private State(Mac mac) {
+            this.mac = mac;
+            this.signature = new byte[mac.getMacLength()];
+            this.encodedSignature = new byte[(signature.length + 2) / 3 * 4];
+        }
+
+        private byte[] token(int length) {
+            if (token.length < length) {
+                token = new byte[length];
+            }
+            return token;
+        }
+
+        private byte[] claims(int length) {
+            if (claims.length < length) {
+                claims = new byte[length];
+            }
+            return claims;
+        }
+
+    }
+
+    /**
+     * Reads the flat claims object of an access token, remembering where the claims of interest are instead of
+     * copying them. Rejects anything but string, integer and string array values, and strings with escapes.
+     */
+    private static final class ClaimsReader {
+
+        private byte[] json;
+        private int position;
+        private int limit;
+        private int stringStart;
+        private int subStart;
+        private int subEnd;
+        private int usernameStart;
+        private int usernameEnd;
+        private int rolesStart;
+        private int rolesEnd;
+        private int typeStart;
+        private int typeEnd;
+        private long expiration;
+
+        private boolean read(byte[] json, int limit) {
+            this.json = json;
+            this.position = 0;
+            this.limit = limit;
+            subEnd = usernameEnd = rolesEnd = typeEnd = -1;
+            expiration = -1;
+            if (!consume('{')) {
+                return false;
+            }
+            if (consume('}')) {
+                return atEnd();
+            }
+            do {
+                int keyEnd = string();
+                int keyStart = stringStart;
+                if (keyEnd < 0 || !consume(':')) {
+                    return false;
+                }
+                if (is(keyStart, keyEnd, SUB)) {
+                    subEnd = string();
+                    subStart = stringStart;
+                } else if (is(keyStart, keyEnd, USERNAME)) {
+                    usernameEnd = string();
+                    usernameStart = stringStart;
+                } else if (is(keyStart, keyEnd, TYPE)) {
+                    typeEnd = string();
+                    typeStart = stringStart;
+                } else if (is(keyStart, keyEnd, ROLES)) {
+                    skipWhitespace();
+                    rolesStart = position;
+                    rolesEnd = stringArray();
+                } else if (is(keyStart, keyEnd, EXP)) {
+                    expiration = number();
+                } else if (is(keyStart, keyEnd, JTI)) {
+                    if (string() < 0) {
+                        return false;
+                    }
+                } else if (!is(keyStart, keyEnd, IAT) || number() < 0) {
+                    return false;
+                }
+                if (position < 0) {
+                    return false;
+                }
+            } while (consume(','));
+            return consume('}') && atEnd() && subEnd >= 0;
+        }
+
+        private long subject() {
+            int length = subEnd - subStart;
+            if (length == 0 || length > 18) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = subStart; i < subEnd; i++) {
+                int digit = json[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private List<String> roles() {
+            List<String> roles = new ArrayList<>();
+            position = rolesStart;
+            consume('[');
+            if (consume(']')) {
+                return roles;
+            }
+            do {
+                int end = string();
+                roles.add(new String(json, stringStart, end - stringStart, StandardCharsets.UTF_8));
+            } while (consume(','));
+            return roles;
+        }
+
+        /**
+         * Reads a string without escapes, returning the index of its closing quote, or -1 and a negative position.
+         */
+        private int string() {
+            skipWhitespace();
+            if (position < 0 || position >= limit || json[position] != '"') {
+                return fail();
+            }
+            stringStart = ++position;
+            while (position < limit) {
+                int b = json[position] & 0xFF;
+                if (b == '"') {
+                    return position++;
+                }
+                if (b == '\\' || b < 0x20) {
+                    return fail();
+                }
+                position++;
+            }
+            return fail();
+        }
+
+        private int stringArray() {
+            if (!consume('[')) {
+                return fail();
+            }
+            if (consume(']')) {
+                return position;
+            }
+            do {
+                if (string() < 0) {
+                    return -1;
+                }
+            } while (consume(','));
+            return consume(']') ? position : fail();
+        }
+
+        private long number() {
+            skipWhitespace();
+            int start = position;
+            long value = 0;
+            while (position < limit && json[position] >= '0' && json[position] <= '9' && position - start < 15) {
+                value = value * 10 + json[position++] - '0';
+            }
+            if (position == start || position < limit && json[position] >= '0' && json[position] <= '9') {
+                return fail();
+            }
+            return value;
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (position >= 0 && position < limit && json[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean atEnd() {
+            skipWhitespace();
+            return position == limit;
+        }
+
+        private void skipWhitespace() {
+            while (position >= 0 && position < limit
+                    && (json[position] == ' ' || json[position] == '\t' || json[position] == '\n'
+                    || json[position] == '\r')) {
+                position++;
+            }
+        }
+
+        private boolean is(int start, int end, byte[] key) {
+            return Arrays.equals(json, start, end, key, 0, key.length);
+        }
+
+        private int fail() {
+            position = -1;
+            return -1;
+        }
+
+    }
+
+}
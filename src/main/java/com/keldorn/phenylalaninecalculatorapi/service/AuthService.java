@@ -18,6 +18,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -36,6 +37,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
+    private final ShardTransactions shardTransactions;
     private final AuthenticationManager authenticationManager;
 
     @Transactional
@@ -98,16 +100,30 @@ public class AuthService {
             throw new InvalidJwtTokenReceivedException("Invalid token received");
         }
         Long userId = jwtService.extractUserIdFromRefreshToken(refreshToken);
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesByUserId(userId)
                 .orElseThrow(() -> new InvalidJwtTokenReceivedException("Invalid token received"));
-        return refreshTokenService.refresh(refreshToken, user);
+        return shardTransactions.runOnUserShard(userId, () -> refreshTokenService.refresh(refreshToken, user));
     }
 
     @Transactional
     public void logout(String refreshToken) {
         log.debug("Logging out user");
         if (refreshToken != null && !refreshToken.isBlank()) {
-            refreshTokenService.deleteByToken(refreshToken);
+            shardTransactions.runOnUserShard(findUserIdOrNull(refreshToken), () -> {
+                refreshTokenService.deleteByToken(refreshToken);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Returns the owner of a refresh token for routing its deletion, or {@code null} when the token cannot be read.
+     */
+    private @Nullable Long findUserIdOrNull(String refreshToken) {
+        try {
+            return jwtService.extractUserIdFromRefreshToken(refreshToken);
+        } catch (InvalidJwtTokenReceivedException | NumberFormatException _) {
+            return null;
         }
     }
 
@@ -122,7 +138,7 @@ public class AuthService {
     private AuthResponseInternal getResponse(User user) {
         log.debug("Authentication Succeeded, Sending Token Back.");
         var accessToken = jwtService.generateAccessToken(user);
-        var refreshToken = refreshTokenService.save(user);
+        var refreshToken = shardTransactions.runOnUserShard(user.getUserId(), () -> refreshTokenService.save(user));
         return new AuthResponseInternal(accessToken, refreshToken);
     }
 
@@ -0,0 +1,191 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheCoherenceProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository.CacheInvalidation;
+import com.keldorn.phenylalaninecalculatorapi.repository.ClusterLockRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import jakarta.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Tails the {@code cache_invalidation} change-log and evicts the local entries named by other nodes. Ids are
+ * assigned at insert but become visible at commit, so a lower id can show up after a higher one; missing ids
+ * below the newest seen one are kept as gaps and re-read until they appear or the gap timeout passes. Gaps are kept
+ * as ranges, so a jump of any size is waited for without tracking each id.
+ * <p>
+ * {@code cache.coherence.lag} is measured from the insert of an invalidation, as {@code created_at} is set then, to
+ * its apply on this node. It includes the time the publishing transaction took to commit after the insert.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.cache.coherence", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CacheInvalidationTailer {
+
+    private static final String METRIC_NAME = "cache.coherence";
+    private static final String CLEANUP_LOCK = "cache-invalidation-cleanup";
+
+    private final CoherentCacheManager cacheManager;
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final ClusterLockRepository clusterLockRepository;
+    private final CacheCoherenceProperties properties;
+    private final Timer lagTimer;
+    private final Counter appliedCounter;
+
+    private final NavigableMap<Long, Gap> gaps = new TreeMap<>();
+    private final NavigableSet<Long> seen = new TreeSet<>();
+    private volatile long highWaterMark;
+    private volatile long pendingGapIds;
+    private long maxSeenId;
+
+    public CacheInvalidationTailer(CoherentCacheManager cacheManager,
+            CacheInvalidationRepository cacheInvalidationRepository, ClusterLockRepository clusterLockRepository,
+            CacheCoherenceProperties properties, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.clusterLockRepository = clusterLockRepository;
+        this.properties = properties;
+        this.lagTimer = Timer.builder(METRIC_NAME + ".lag")
+                .description("Time from a remote cache invalidation being inserted to it being applied locally")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.appliedCounter = Counter.builder(METRIC_NAME + ".invalidations")
+                .description("Number of remote cache invalidations applied on this node")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".pending.gaps", this, tailer -> tailer.pendingGapIds)
+                .description("Change-log ids that are not visible yet and are still waited for")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Local caches start empty, so only invalidations written after startup are relevant.
+     */
+    @PostConstruct
+    void init() {
+        highWaterMark = cacheInvalidationRepository.findMaxId();
+        maxSeenId = highWaterMark;
+        log.debug("Tailing cache invalidations after id {} as node {}", highWaterMark, cacheManager.getNodeId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.coherence.poll-interval:1s}")
+    public synchronized void poll() {
+        List<CacheInvalidation> invalidations;
+        try {
+            invalidations = cacheInvalidationRepository.findAfter(highWaterMark, properties.getBatchSize());
+        } catch (DataAccessException e) {
+            log.warn("Could not read cache invalidations: {}", e.getMessage());
+            return;
+        }
+        Instant now = Instant.now();
+        for (CacheInvalidation invalidation : invalidations) {
+            if (!seen.add(invalidation.id())) {
+                continue;
+            }
+            fill(invalidation.id());
+            if (invalidation.id() > maxSeenId) {
+                if (invalidation.id() > maxSeenId + 1) {
+                    gaps.put(maxSeenId + 1, new Gap(invalidation.id(), now));
+                }
+                maxSeenId = invalidation.id();
+            }
+            apply(invalidation);
+        }
+        gaps.values().removeIf(gap -> Duration.between(gap.since(), now).compareTo(properties.getGapTimeout()) >= 0);
+        highWaterMark = gaps.isEmpty() ? maxSeenId : gaps.firstKey() - 1;
+        seen.headSet(highWaterMark, true).clear();
+        pendingGapIds = gaps.entrySet().stream().mapToLong(entry -> entry.getValue().end() - entry.getKey()).sum();
+    }
+
+    /**
+     * Tails again from an earlier mark, used when entries that were current at that mark are restored. Ids above it
+     * that are not committed yet are then waited for as gaps like any other.
+     */
+    public synchronized void rewind(long mark) {
+        if (mark >= highWaterMark) {
+            return;
+        }
+        highWaterMark = mark;
+        maxSeenId = mark;
+        gaps.clear();
+        seen.clear();
+        pendingGapIds = 0;
+        log.debug("Rewound cache invalidation tailing to id {}", mark);
+    }
+
+    /**
+     * Deletes expired invalidations on one node of the cluster at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.coherence.cleanup-interval:10m}")
+    public void cleanUp() {
+        if (!clusterLockRepository.runExclusively(CLEANUP_LOCK, this::deleteExpired)) {
+            log.debug("Cache invalidation cleanup is running on another instance, skipping");
+        }
+    }
+
+    private void deleteExpired() {
+        int count = cacheInvalidationRepository.deleteOlderThan(properties.getRetention());
+        log.debug("Deleted {} expired cache invalidations", count);
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Removes an id that became visible from the gap holding it, splitting the gap around it.
+     */
+    private void fill(long id) {
+        Map.Entry<Long, Gap> entry = gaps.floorEntry(id);
+        if (entry == null || id >= entry.getValue().end()) {
+            return;
+        }
+        Gap gap = entry.getValue();
+        gaps.remove(entry.getKey());
+        if (entry.getKey() < id) {
+            gaps.put(entry.getKey(), new Gap(id, gap.since()));
+        }
+        if (id + 1 < gap.end()) {
+            gaps.put(id + 1, gap);
+        }
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        if (cacheManager.getNodeId().equals(invalidation.origin())) {
+            return;
+        }
+        cacheManager.evictLocally(invalidation.cacheName(), invalidation.cacheKey());
+        lagTimer.record(invalidation.age());
+        appliedCounter.increment();
+        log.debug("Applied invalidation {} of cache {} key {} from node {}", invalidation.id(),
+                invalidation.cacheName(), invalidation.cacheKey(), invalidation.origin());
+    }
+
+    /**
+     * Missing ids from the key of the gap up to {@code end}, exclusive, waited for since {@code since}.
+     */
+    private record Gap(long end, Instant since) {
+    }
+
+}
@@ -0,0 +1,423 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheCoherenceProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CacheSnapshotProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager.CacheEntry;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the hottest entries of every cache to a local file on shutdown and loads them back on startup, before
+ * the warm-up runs. The file starts with a magic number, a format version and a table of the key and value
+ * classes it uses with a hash of their fields, so snapshots written by another format or with since changed
+ * DTOs are not restored. Keys and values are JSON, the container is gzipped and prefixed with its HMAC-SHA256,
+ * so only snapshots written with the configured signing key are read back. The file lives in a directory only the
+ * application user can access.
+ * <p>
+ * A snapshot is validated against the {@code cache_invalidation} change-log: it records the high-water mark the
+ * node had applied, and every cache invalidated after it is dropped on restore. Invalidations above the mark that
+ * are not committed yet are caught by rewinding the {@link CacheInvalidationTailer} to the mark, which waits for
+ * missing ids as gaps. Snapshots older than the change-log retention cannot be validated and are discarded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CacheSnapshotService implements ApplicationRunner, DisposableBean {
+
+    static final int MAGIC = 0x43534e50;
+    static final int VERSION = 2;
+    static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    static final int SIGNATURE_LENGTH = 32;
+
+    private static final String DTO_PACKAGE = "com.keldorn.phenylalaninecalculatorapi.dto.";
+    private static final Set<Class<?>> SCALAR_TYPES = Set.of(Long.class, Integer.class, String.class, Boolean.class);
+    private static final int NULL_CLASS = -1;
+    private static final int SINGLE_KEY = -1;
+    private static final Object UNREADABLE = new Object();
+
+    private final CacheSnapshotProperties properties;
+    private final CacheCoherenceProperties cacheCoherenceProperties;
+    private final CoherentCacheManager cacheManager;
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final ObjectProvider<CacheInvalidationTailer> cacheInvalidationTailer;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path file = properties.getFile();
+        if (!isActive() || cacheInvalidationTailer.getIfAvailable() == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            restore(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore cache snapshot {}: {}", file, e.getMessage());
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Runs before the cache manager is destroyed, the web server has already drained requests by then.
+     */
+    @Override
+    public void destroy() {
+        CacheInvalidationTailer tailer = cacheInvalidationTailer.getIfAvailable();
+        if (!isActive() || tailer == null) {
+            return;
+        }
+        Path file = properties.getFile();
+        try {
+            write(file, tailer.getHighWaterMark());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    void write(Path file, long highWaterMark) throws IOException {
+        List<Class<?>> classes = new ArrayList<>();
+        Map<String, List<CacheEntry>> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            caches.put(name, cacheManager.hottest(name, properties.getMaxEntriesPerCache()).stream()
+                    .filter(entry -> keyElements(entry.key()).stream().allMatch(CacheSnapshotService::isSupported)
+                            && isSupported(entry.value()))
+                    .toList());
+        }
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(payload))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(highWaterMark);
+            out.writeLong(System.currentTimeMillis());
+            caches.values().forEach(entries -> entries.forEach(entry -> {
+                keyElements(entry.key()).forEach(element -> register(classes, element));
+                register(classes, entry.value());
+            }));
+            out.writeInt(classes.size());
+            for (Class<?> type : classes) {
+                out.writeUTF(type.getName());
+                out.writeInt(shapeHash(type));
+            }
+            out.writeInt(caches.size());
+            for (Map.Entry<String, List<CacheEntry>> cache : caches.entrySet()) {
+                out.writeUTF(cache.getKey());
+                out.writeInt(cache.getValue().size());
+                for (CacheEntry entry : cache.getValue()) {
+                    out.writeLong(entry.age().toMillis());
+                    out.writeInt(entry.key() instanceof List<?> list ? list.size() : SINGLE_KEY);
+                    for (Object element : keyElements(entry.key())) {
+                        writeValue(out, classes, element);
+                    }
+                    writeValue(out, classes, entry.value());
+                    written++;
+                }
+            }
+        }
+        byte[] bytes = payload.toByteArray();
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory, ownerOnly("rwx------"));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        Files.createFile(temporary, ownerOnly("rw-------"));
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            out.write(sign(bytes, 0, bytes.length));
+            out.write(bytes);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote {} cache entries to snapshot {}", written, file);
+    }
+
+    void restore(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length <= SIGNATURE_LENGTH || !MessageDigest.isEqual(Arrays.copyOf(bytes, SIGNATURE_LENGTH),
+                sign(bytes, SIGNATURE_LENGTH, bytes.length - SIGNATURE_LENGTH))) {
+            log.warn("Ignoring cache snapshot {}, its signature does not match", file);
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes,
+                SIGNATURE_LENGTH, bytes.length - SIGNATURE_LENGTH)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.info("Ignoring cache snapshot {} of another format", file);
+                return;
+            }
+            long highWaterMark = in.readLong();
+            Duration snapshotAge = Duration.ofMillis(System.currentTimeMillis() - in.readLong());
+            if (snapshotAge.compareTo(cacheCoherenceProperties.getRetention()) >= 0) {
+                log.info("Ignoring cache snapshot {} written {} ago, older than the invalidation retention", file,
+                        snapshotAge);
+                return;
+            }
+            List<@Nullable Class<?>> classes = readClassTable(in);
+            CacheInvalidationTailer tailer = cacheInvalidationTailer.getIfAvailable();
+            if (tailer != null) {
+                tailer.rewind(highWaterMark);
+            }
+            // Read before the change-log, so an invalidation racing the restore is caught by the generation check
+            Map<String, Long> generations = new HashMap<>();
+            cacheManager.getCacheNames().forEach(name -> generations.put(name, cacheManager.getGeneration(name)));
+            Set<String> invalidated = cacheInvalidationRepository.findCacheNamesAfter(highWaterMark);
+            int cacheCount = in.readInt();
+            int restored = 0;
+            for (int i = 0; i < cacheCount; i++) {
+                String name = in.readUTF();
+                List<CacheEntry> entries = readEntries(in, classes, snapshotAge);
+                Long generation = generations.get(name);
+                if (generation != null && !invalidated.contains(name)) {
+                    restored += cacheManager.restore(name, entries, generation);
+                }
+            }
+            log.info("Restored {} cache entries from snapshot {}, dropped invalidated caches {}", restored, file,
+                    invalidated);
+        }
+    }
+
+    /**
+     * Returns the HMAC of a part of the snapshot under the configured signing key.
+     */
+    byte[] sign(byte[] bytes, int offset, int length) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(properties.getSigningKey()), SIGNATURE_ALGORITHM));
+            mac.update(bytes, offset, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign cache snapshot", e);
+        }
+    }
+
+    private boolean isActive() {
+        return properties.isEnabled() && cacheManager.isEnabled() && properties.getSigningKey() != null;
+    }
+
+    private void writeValue(DataOutputStream out, List<Class<?>> classes, @Nullable Object value)
+            throws IOException {
+        out.writeInt(value != null ? classes.indexOf(value.getClass()) : NULL_CLASS);
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    private List<CacheEntry> readEntries(DataInputStream in, List<@Nullable Class<?>> classes, Duration snapshotAge)
+            throws IOException {
+        int count = in.readInt();
+        List<CacheEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Duration age = Duration.ofMillis(in.readLong()).plus(snapshotAge);
+            int elementCount = in.readInt();
+            boolean readable = true;
+            Object key;
+            if (elementCount == SINGLE_KEY) {
+                key = readValue(in, classes);
+                readable = key != UNREADABLE;
+            } else {
+                Object[] elements = new Object[elementCount];
+                for (int e = 0; e < elementCount; e++) {
+                    elements[e] = readValue(in, classes);
+                    readable &= elements[e] != UNREADABLE;
+                }
+                // Keys are SpEL list literals, which compare equal to any list of the same elements
+                key = Arrays.asList(elements);
+            }
+            Object value = readValue(in, classes);
+            if (readable && key != null && value != UNREADABLE) {
+                entries.add(new CacheEntry(key, value, age));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns {@link #UNREADABLE} for values of classes that are no longer allowed or changed shape since the
+     * snapshot was written.
+     */
+    private @Nullable Object readValue(DataInputStream in, List<@Nullable Class<?>> classes) throws IOException {
+        int index = in.readInt();
+        byte[] json = new byte[in.readInt()];
+        in.readFully(json);
+        if (index == NULL_CLASS) {
+            return null;
+        }
+        Class<?> type = classes.get(index);
+        return type != null ? objectMapper.readValue(json, type) : UNREADABLE;
+    }
+
+    private static List<@Nullable Class<?>> readClassTable(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<@Nullable Class<?>> classes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            int shapeHash = in.readInt();
+            Class<?> type = resolve(name);
+            classes.add(type != null && shapeHash(type) == shapeHash ? type : null);
+        }
+        return classes;
+    }
+
+    private static @Nullable Class<?> resolve(String name) {
+        for (Class<?> scalar : SCALAR_TYPES) {
+            if (scalar.getName().equals(name)) {
+                return scalar;
+            }
+        }
+        if (!name.startsWith(DTO_PACKAGE)) {
+            return null;
+        }
+        try {
+            return Class.forName(name, false, CacheSnapshotService.class.getClassLoader());
+        } catch (ClassNotFoundException _) {
+            return null;
+        }
+    }
+
+    private static boolean isSupported(@Nullable Object value) {
+        return value == null || SCALAR_TYPES.contains(value.getClass())
+                || value.getClass().getName().startsWith(DTO_PACKAGE);
+    }
+
+    /**
+     * Hashes the names and generic types of the fields of a class and of the DTOs it holds, so a DTO that gained,
+     * lost or retyped a field since the snapshot is detected, also when it is nested in a page or list.
+     */
+    static int shapeHash(Class<?> type) {
+        if (SCALAR_TYPES.contains(type)) {
+            return type.getName().hashCode();
+        }
+        return shape(type).hashCode();
+    }
+
+    static String shape(Class<?> type) {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape, type, new HashSet<>());
+        return shape.toString();
+    }
+
+    private static void appendShape(StringBuilder shape, Class<?> type, Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+        List<Type> fieldTypes = new ArrayList<>();
+        shape.append('{').append(type.getName());
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                shape.append(';').append(component.getName()).append(':').append(component.getGenericType());
+                fieldTypes.add(component.getGenericType());
+            }
+        } else {
+            for (Class<?> current = type; current != null && current != Object.class;
+                    current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        shape.append(';').append(field.getName()).append(':').append(field.getGenericType());
+                        fieldTypes.add(field.getGenericType());
+                    }
+                }
+            }
+        }
+        shape.append('}');
+        for (Type fieldType : fieldTypes) {
+            for (Class<?> nested : dtoTypes(fieldType)) {
+                appendShape(shape, nested, visited);
+            }
+        }
+    }
+
+    /**
+     * Returns the DTO classes a field type refers to, directly, as array component or as type argument.
+     */
+    private static List<Class<?>> dtoTypes(Type type) {
+        return switch (type) {
+            case Class<?> array when array.isArray() -> dtoTypes(array.getComponentType());
+            case Class<?> dto when dto.getName().startsWith(DTO_PACKAGE) -> List.of(dto);
+            case ParameterizedType parameterized -> Stream.concat(Stream.of(parameterized.getRawType()),
+                            Arrays.stream(parameterized.getActualTypeArguments()))
+                    .flatMap(argument -> dtoTypes(argument).stream())
+                    .toList();
+            case GenericArrayType array -> dtoTypes(array.getGenericComponentType());
+            case WildcardType wildcard -> Arrays.stream(wildcard.getUpperBounds())
+                    .flatMap(bound -> dtoTypes(bound).stream())
+                    .toList();
+            default -> List.of();
+        };
+    }
+
+    private static List<?> keyElements(Object key) {
+        return key instanceof List<?> list ? list : List.of(key);
+    }
+
+    private static void register(List<Class<?>> classes, @Nullable Object value) {
+        if (value != null && !classes.contains(value.getClass())) {
+            classes.add(value.getClass());
+        }
+    }
+
+    private static FileAttribute<?>[] ownerOnly(String permissions) {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete cache snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheWarmUpProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestHeaders;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository.HotKey;
+import com.keldorn.phenylalaninecalculatorapi.repository.UserRepository;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Warms the caches and the JIT up before the application reports ready. Runners complete before Boot switches
+ * readiness to accepting traffic, so {@code /actuator/health/readiness} stays down until the warm-up finishes or
+ * its timeout passes. The hottest keys recorded by {@link HotKeyService} are loaded into their caches through the
+ * services, then replayed over HTTP against the local server so the whole request path gets compiled. The
+ * warm-up runs on a thread of its own that is interrupted at the timeout, and it stops between keys once the
+ * timeout has passed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheWarmUpService implements ApplicationRunner {
+
+    private final CacheWarmUpProperties cacheWarmUpProperties;
+    private final HotKeyRepository hotKeyRepository;
+    private final HotKeyService hotKeyService;
+    private final UserRepository userRepository;
+    private final FoodService foodService;
+    private final FoodTypeService foodTypeService;
+    private final JwtService jwtService;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!cacheWarmUpProperties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + cacheWarmUpProperties.getTimeout().toNanos();
+        ExecutorService executor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("cache-warm-up").daemon().factory());
+        Future<?> warmUp = executor.submit(() -> warmUp(deadline));
+        try {
+            warmUp.get(cacheWarmUpProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Cache warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException _) {
+            warmUp.cancel(true);
+            log.warn("Cache warm-up did not finish within {}, accepting traffic anyway",
+                    cacheWarmUpProperties.getTimeout());
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up failed, accepting traffic anyway: {}", e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    void warmUp(long deadline) {
+        List<HotKey> hotKeys = hotKeyRepository.findHottest(cacheWarmUpProperties.getHotKeyLimit());
+        log.debug("Warming up {} hot keys", hotKeys.size());
+        for (HotKey hotKey : hotKeys) {
+            if (isStopped(deadline)) {
+                return;
+            }
+            load(hotKey);
+        }
+        if (cacheWarmUpProperties.getReplayIterations() > 0 && !hotKeys.isEmpty()) {
+            replay(hotKeys, deadline);
+        }
+    }
+
+    private void load(HotKey hotKey) {
+        try {
+            UserContext.runAs(hotKey.userId(), () -> switch (hotKey.cacheName()) {
+                case "foodPages" -> foodService.findAll(
+                        QueryRequest.builder().query(hotKey.query()).sort(hotKey.sort()).build(),
+                        pagination(hotKey));
+                case "foodTypePages" -> foodTypeService.findAll(pagination(hotKey));
+                case "foods" -> foodService.findById(hotKey.entityId());
+                case "foodTypes" -> foodTypeService.findById(hotKey.entityId());
+                default -> null;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Skipping hot key {}: {}", hotKey, e.getMessage());
+        }
+    }
+
+    private void replay(List<HotKey> hotKeys, long deadline) {
+        Optional<Integer> port = Optional.ofNullable(environment.getProperty("local.server.port", Integer.class));
+        if (port.isEmpty()) {
+            return;
+        }
+        RestClient restClient = RestClient.create("http://localhost:" + port.get());
+        Map<Long, Optional<String>> tokens = new HashMap<>();
+        for (int i = 0; i < cacheWarmUpProperties.getReplayIterations(); i++) {
+            for (HotKey hotKey : hotKeys) {
+                if (isStopped(deadline)) {
+                    return;
+                }
+                Optional<String> token = tokens.computeIfAbsent(hotKey.userId(), this::accessToken);
+                if (token.isEmpty()) {
+                    continue;
+                }
+                try {
+                    restClient.get()
+                            .uri(uri(hotKey))
+                            .headers(headers -> headers.setBearerAuth(token.get()))
+                            .header(RequestHeaders.CACHE_WARM_UP, hotKeyService.getReplayToken())
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (RestClientException e) {
+                    log.debug("Replay of hot key {} failed: {}", hotKey, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Optional<String> accessToken(Long userId) {
+        return userRepository.findWithRolesByUserId(userId).map(jwtService::generateAccessToken);
+    }
+
+    private static boolean isStopped(long deadline) {
+        return Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0;
+    }
+
+    private static PaginationRequest pagination(HotKey hotKey) {
+        return PaginationRequest.builder()
+                .pageNumber(hotKey.pageNumber())
+                .pageSize(hotKey.pageSize())
+                .build();
+    }
+
+    private static URI uri(HotKey hotKey) {
+        return switch (hotKey.cacheName()) {
+            case "foods" -> UriComponentsBuilder.fromUriString(ApiRoutes.FOOD_PATH_BY_ID)
+                    .buildAndExpand(hotKey.entityId()).toUri();
+            case "foodTypes" -> UriComponentsBuilder.fromUriString(ApiRoutes.FOOD_TYPE_PATH_BY_ID)
+                    .buildAndExpand(hotKey.entityId()).toUri();
+            default -> UriComponentsBuilder.fromUriString(
+                            "foodTypePages".equals(hotKey.cacheName()) ? ApiRoutes.FOOD_TYPE_PATH
+                                    : ApiRoutes.FOOD_PATH)
+                    .queryParamIfPresent("query", Optional.ofNullable(hotKey.query()))
+                    .queryParamIfPresent("sort", Optional.ofNullable(hotKey.sort()))
+                    .queryParamIfPresent("page", Optional.ofNullable(hotKey.pageNumber()))
+                    .queryParamIfPresent("size", Optional.ofNullable(hotKey.pageSize()))
+                    .build()
+                    .toUri();
+        };
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.keldorn.phenylalaninecalculatorapi.service;
 
+import com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.DailyIntake;
 import com.keldorn.phenylalaninecalculatorapi.dto.dailyintake.DailyIntakeResponse;
 import com.keldorn.phenylalaninecalculatorapi.exception.DailyIntakeCannotBeLowerThanZeroException;
@@ -18,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
+@UserSharded
 @RequiredArgsConstructor
 public class DailyIntakeService {
 
@@ -1,10 +1,7 @@
 package com.keldorn.phenylalaninecalculatorapi.service;
 
-import com.keldorn.phenylalaninecalculatorapi.repository.DailyIntakeRepository;
-import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionRepository;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodTypeRepository;
-import com.keldorn.phenylalaninecalculatorapi.repository.RefreshTokenRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,22 +16,24 @@ public class DeleteUserAssociationsService {
 
     private final FoodRepository foodRepository;
     private final FoodTypeRepository foodTypeRepository;
-    private final DailyIntakeRepository dailyIntakeRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final FoodConsumptionRepository foodConsumptionRepository;
+    private final UserShardDataService userShardDataService;
+    private final ShardTransactions shardTransactions;
 
+    /**
+     * Detaches the foods and food types of the user and deletes the per-user rows. On a shard they are deleted
+     * once the deletion of the user commits on the primary, and deleting them again is harmless.
+     */
     @Transactional
     public void removeAssociation(Long userId) {
         int foodCount = foodRepository.updateFoodUser(userId, null);
         log.debug("Removed food associations {}, for user: {}", foodCount, userId);
         int foodTypeCount = foodTypeRepository.updateFoodTypeUser(userId, null);
         log.debug("Removed food associations {}, for user: {}", foodTypeCount, userId);
-        int dailyIntakeCount = dailyIntakeRepository.deleteDailyIntakeByUserId(userId);
-        log.debug("Deleted daily intake {}, for user {}", dailyIntakeCount, userId);
-        int foodConsumptionCount = foodConsumptionRepository.deleteFoodConsumptionByUserId(userId);
-        log.debug("Deleted food consumption {}, for user {}", foodConsumptionCount, userId);
-        refreshTokenRepository.deleteByUser_UserId(userId);
-        log.debug("Deleted refresh tokens for user {}", userId);
+        int foodTombstoneCount = foodRepository.updateFoodTombstoneUser(userId, null);
+        log.debug("Removed archived food associations {}, for user: {}", foodTombstoneCount, userId);
+        int foodTypeTombstoneCount = foodTypeRepository.updateFoodTypeTombstoneUser(userId, null);
+        log.debug("Removed archived food type associations {}, for user: {}", foodTypeTombstoneCount, userId);
+        shardTransactions.runOnUserShardAfterCommit(userId, () -> userShardDataService.deleteUserData(userId));
     }
 
 }
@@ -0,0 +1,79 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.FoodArchiveProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardDataSources;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodTypeRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FoodArchiveService {
+
+    private static final String RECENTLY_CONSUMED_FOODS =
+            "SELECT food_id FROM food_consumption WHERE consumed_at >= ? "
+                    + "UNION SELECT food_id FROM food_consumption_archive WHERE consumed_at >= ?";
+
+    private final FoodArchiveProperties archiveProperties;
+    private final FoodRepository foodRepository;
+    private final FoodTypeRepository foodTypeRepository;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    /**
+     * Moves soft-deleted foods without recent consumptions, then soft-deleted food types no longer referenced by
+     * any food, into their tombstone tables. Consumptions keep the name and phenylalanine of their food, so they do
+     * not depend on the archived rows. With sharding enabled, consumptions live on every shard, so foods consumed
+     * recently on any of them are kept as well. Deleted foods cannot be consumed anymore, so no new reference can
+     * appear between the check and the move.
+     */
+    @Transactional
+    @Scheduled(cron = "${app.archive.food.cron:0 0 4 * * *}", zone = "UTC")
+    public void archive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        Instant since = Instant.now().minus(archiveProperties.getRecentConsumptionDays(), ChronoUnit.DAYS);
+        Set<Long> referencedOnShards = findConsumedOnShards(since);
+        int copiedFoods = referencedOnShards.isEmpty()
+                ? foodRepository.copyDeletedToTombstone(since)
+                : foodRepository.copyDeletedToTombstoneExcept(since, referencedOnShards);
+        int deletedFoods = foodRepository.deleteTombstoned();
+        log.info("Archived {} deleted foods, removed {} from the food table", copiedFoods, deletedFoods);
+        int copiedFoodTypes = foodTypeRepository.copyDeletedToTombstone();
+        int deletedFoodTypes = foodTypeRepository.deleteTombstoned();
+        log.info("Archived {} deleted food types, removed {} from the food type table", copiedFoodTypes,
+                deletedFoodTypes);
+    }
+
+    private Set<Long> findConsumedOnShards(Instant since) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            return Set.of();
+        }
+        Set<Long> consumed = new HashSet<>();
+        shards.dataSources().forEach((shardId, dataSource) -> {
+            if (!ShardingProperties.PRIMARY_SHARD.equals(shardId)) {
+                consumed.addAll(new JdbcTemplate(dataSource).queryForList(RECENTLY_CONSUMED_FOODS, Long.class,
+                        Timestamp.from(since), Timestamp.from(since)));
+            }
+        });
+        return consumed;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.FoodConsumptionArchiveProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardDataSources;
+import com.keldorn.phenylalaninecalculatorapi.repository.ClusterLockRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionPartitionRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionPartitionRepository.Partition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FoodConsumptionArchiveService {
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String LOCK_NAME = "food-consumption-archive";
+
+    private final FoodConsumptionArchiveProperties archiveProperties;
+    private final FoodConsumptionPartitionRepository partitionRepository;
+    private final ClusterLockRepository clusterLockRepository;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    /**
+     * Returns the first instant that is still guaranteed to be in the hot {@code food_consumption} table.
+     * Everything before it is moved to {@code food_consumption_archive} by {@link #archive()}.
+     */
+    public Instant getArchiveCutoff() {
+        return cutoffDate().atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Returns whether a range starting at {@code start} may have rows in the archive. Day ranges are bounded in the
+     * user's zone, so a range can start before the UTC cutoff and end after it.
+     */
+    public boolean reachesArchive(Instant start) {
+        return archiveProperties.isEnabled() && start.isBefore(getArchiveCutoff());
+    }
+
+    /**
+     * Archives on one instance of the cluster at a time, the others skip the run while the lock is held. With
+     * sharding enabled the partitions of every shard are maintained, a shard that fails does not stop the others.
+     */
+    @Scheduled(cron = "${app.archive.food-consumption.cron:0 30 3 * * *}", zone = "UTC")
+    public void archive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        if (!clusterLockRepository.runExclusively(LOCK_NAME, this::archiveShards)) {
+            log.info("Food consumption archival is running on another instance, skipping");
+        }
+    }
+
+    private void archiveShards() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            archivePartitions(partitionRepository);
+            return;
+        }
+        shards.dataSources().forEach((shardId, dataSource) -> {
+            try {
+                archivePartitions(partitionRepository.on(dataSource));
+            } catch (DataAccessException e) {
+                log.error("Food consumption archival failed on shard {}", shardId, e);
+            }
+        });
+    }
+
+    private void archivePartitions(FoodConsumptionPartitionRepository repository) {
+        List<Partition> partitions = repository.findPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("food_consumption is not partitioned, skipping archival");
+            return;
+        }
+        int recovered = repository.archiveStaging();
+        if (recovered > 0) {
+            log.info("Archived {} food consumption rows left staged by an interrupted run", recovered);
+        }
+        createFuturePartitions(repository, partitions);
+        LocalDate cutoff = cutoffDate();
+        for (Partition partition : partitions) {
+            if (partition.isBefore(cutoff)) {
+                int copied = repository.moveToArchive(partition.name());
+                if (repository.isEmpty(partition.name())) {
+                    repository.dropPartition(partition.name());
+                    log.info("Archived partition {} with {} food consumption rows", partition.name(), copied);
+                } else {
+                    log.warn("Partition {} received rows while being archived, keeping it for the next run",
+                            partition.name());
+                }
+            }
+        }
+    }
+
+    private void createFuturePartitions(FoodConsumptionPartitionRepository repository,
+            List<Partition> partitions) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= archiveProperties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_FORMAT);
+            LocalDate upperBound = month.plusMonths(1).atDay(1);
+            if (partitions.stream().noneMatch(p -> p.covers(upperBound))) {
+                log.info("Creating food consumption partition {}", name);
+                repository.splitFuturePartition(name, upperBound);
+            }
+        }
+    }
+
+    private LocalDate cutoffDate() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(archiveProperties.getHorizonMonths()).atDay(1);
+    }
+
+}
@@ -2,7 +2,7 @@ package com.keldorn.phenylalaninecalculatorapi.service;
 
 import static com.keldorn.phenylalaninecalculatorapi.utils.TimezoneHelper.resolveZoneId;
 
-import com.keldorn.phenylalaninecalculatorapi.domain.entity.Food;
+import com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodConsumption;
 import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.FoodConsumptionRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.FoodConsumptionResponse;
@@ -11,6 +11,8 @@ import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.mapper.FoodConsumptionMapper;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository.FoodNutrients;
+import com.keldorn.phenylalaninecalculatorapi.repository.RecentConsumptionStore;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -18,6 +20,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,13 +33,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
+@UserSharded
 @RequiredArgsConstructor
 public class FoodConsumptionService {
 
     private final UserService userService;
     private final FoodReadService foodReadService;
     private final DailyIntakeService dailyIntakeService;
+    private final FoodConsumptionArchiveService foodConsumptionArchiveService;
     private final FoodConsumptionRepository foodConsumptionRepository;
+    private final RecentConsumptionStore recentConsumptionStore;
+    private final ShardTransactions shardTransactions;
 
     private static final ZoneId utcZoneId = ZoneOffset.UTC;
 
@@ -55,28 +62,46 @@ public class FoodConsumptionService {
         Instant end = date.plusDays(1).atStartOfDay(zoneId).toInstant();
         Long userId = userService.getCurrentUserId();
         Pageable pageable = PageRequest.of(paginationRequest.getPageNumber(), paginationRequest.getPageSize());
-        Page<FoodConsumption> response =
-                foodConsumptionRepository.findAllByUserAndConsumedAtBetween(userId, start, end, pageable);
+        Optional<PagedFoodConsumptionResponse> recent =
+                recentConsumptionStore.findPage(userId, start, end, zoneId, pageable);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
+        Page<FoodConsumption> response = foodConsumptionArchiveService.reachesArchive(start)
+                ? foodConsumptionRepository.findAllWithArchivedByUserAndConsumedAtBetween(userId, start, end, pageable)
+                : foodConsumptionRepository.findAllByUserAndConsumedAtBetween(userId, start, end, pageable);
         return FoodConsumptionMapper.INSTANCE.toModel(response, zoneId);
     }
 
+    /**
+     * Reads the food through the nutrient cache and links it by reference, so logging a consumption of a cached
+     * food does not query the {@code food} table. A cache miss reads the catalog from the primary.
+     */
     @Transactional
     public FoodConsumptionResponse save(Long foodId, FoodConsumptionRequest request, String timezone) {
         log.debug("Creating food consumption");
-        Food food = foodReadService.findByIdOrThrow(foodId);
-        BigDecimal phenylalanineAmount = calculatePhenylalanineAmount(food.getPhenylalanine(), request.amount());
+        FoodNutrients nutrients =
+                shardTransactions.readOnPrimary(() -> foodReadService.findNutrientsByIdOrThrow(foodId));
+        if (nutrients.deleted()) {
+            throw new ResourceNotFoundException("Food Not Found.");
+        }
+        BigDecimal phenylalanineAmount = calculatePhenylalanineAmount(nutrients.phenylalanine(), request.amount());
         Instant now = Instant.now();
         ZoneId userZoneId = resolveZoneId(timezone);
         LocalDate userLocalDate = LocalDate.ofInstant(now, userZoneId);
         dailyIntakeService.addAmount(userLocalDate, phenylalanineAmount);
         FoodConsumption foodConsumption = FoodConsumption.builder()
                 .user(userService.getCurrentUserReference())
-                .food(food)
+                .food(foodReadService.getReference(foodId))
                 .consumedAt(now)
+                .foodName(nutrients.name())
+                .foodPhenylalanine(nutrients.phenylalanine())
                 .amount(request.amount())
                 .phenylalanineAmount(phenylalanineAmount)
                 .build();
-        return FoodConsumptionMapper.INSTANCE.toModel(foodConsumptionRepository.save(foodConsumption), utcZoneId);
+        FoodConsumption saved = foodConsumptionRepository.save(foodConsumption);
+        recentConsumptionStore.putAfterCommit(userService.getCurrentUserId(), saved);
+        return FoodConsumptionMapper.INSTANCE.toModel(saved, utcZoneId);
     }
 
     @Transactional
@@ -84,13 +109,15 @@ public class FoodConsumptionService {
         log.debug("Updating food consumption by id: {}", id);
         FoodConsumption foodConsumption = findByIdOrThrow(id, userService.getCurrentUserId());
         BigDecimal phenylalanineAmount =
-                calculatePhenylalanineAmount(foodConsumption.getFood().getPhenylalanine(), request.amount());
+                calculatePhenylalanineAmount(foodConsumption.getFoodPhenylalanine(), request.amount());
         ZoneId userZoneId = resolveZoneId(timezone);
         LocalDate localDate = LocalDate.ofInstant(foodConsumption.getConsumedAt(), userZoneId);
         dailyIntakeService.addAmount(localDate, phenylalanineAmount.subtract(foodConsumption.getPhenylalanineAmount()));
         foodConsumption.setPhenylalanineAmount(phenylalanineAmount);
         foodConsumption.setAmount(request.amount());
-        return FoodConsumptionMapper.INSTANCE.toModel(foodConsumptionRepository.save(foodConsumption), utcZoneId);
+        FoodConsumption saved = foodConsumptionRepository.save(foodConsumption);
+        recentConsumptionStore.putAfterCommit(userService.getCurrentUserId(), saved);
+        return FoodConsumptionMapper.INSTANCE.toModel(saved, utcZoneId);
     }
 
     @Transactional
@@ -101,6 +128,7 @@ public class FoodConsumptionService {
         LocalDate localDate = LocalDate.ofInstant(foodConsumption.getConsumedAt(), userZoneId);
         dailyIntakeService.addAmount(localDate, foodConsumption.getPhenylalanineAmount().negate());
         foodConsumptionRepository.delete(foodConsumption);
+        recentConsumptionStore.removeAfterCommit(userService.getCurrentUserId(), foodConsumption.getId());
     }
 
     private BigDecimal calculatePhenylalanineAmount(BigDecimal phenylalanine, BigDecimal amount) {
@@ -3,10 +3,12 @@ package com.keldorn.phenylalaninecalculatorapi.service;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.Food;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository.FoodNutrients;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,4 +26,20 @@ public class FoodReadService {
                 .orElseThrow(() -> new ResourceNotFoundException("Food Not Found."));
     }
 
+    /**
+     * Cached by food id, deleted foods included so repeated lookups of them do not reach the database either. The
+     * cache is evicted by every food mutation, locally after commit and on the other nodes through the change-log.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "foodNutrients", key = "#id", sync = true)
+    public FoodNutrients findNutrientsByIdOrThrow(Long id) {
+        log.debug("Getting Food Nutrients By Id: {}", id);
+        return foodRepository.findNutrientsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Food Not Found."));
+    }
+
+    public Food getReference(Long id) {
+        return foodRepository.getReferenceById(id);
+    }
+
 }
@@ -12,11 +12,16 @@ import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
 import com.keldorn.phenylalaninecalculatorapi.exception.CannotEditResourceException;
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidRSQLException;
+import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.mapper.FoodMapper;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodCatalog;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodCatalogStore;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
 import com.keldorn.phenylalaninecalculatorapi.utils.FoodQueryParamsUtil;
 
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
 
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.core.PropertyReferenceException;
 import org.springframework.data.domain.Page;
@@ -41,23 +47,43 @@ import io.github.perplexhub.rsql.UnknownPropertyException;
 @RequiredArgsConstructor
 public class FoodService {
 
+    private static final Set<String> NAME_SORTS = Set.of("name", "name,asc", "name,desc");
+
     private final UserService userService;
     private final FoodRepository foodRepository;
     private final FoodReadService foodReadService;
     private final FoodTypeReadService foodTypeReadService;
+    private final QueryCostService queryCostService;
+    private final FoodCatalogStore foodCatalogStore;
 
     @Transactional(readOnly = true)
+    @Cacheable(value = "foods", key = "{#id, @userService.getCurrentUserId()}", sync = true)
     public FoodResponse findById(Long id) {
         log.debug("Finding Food By Id: {}", id);
-        return FoodMapper.INSTANCE.toModel(foodReadService.findByIdOrThrow(id), userService.getCurrentUserId());
+        Long currentUserId = userService.getCurrentUserId();
+        Optional<FoodCatalog> catalog = foodCatalogStore.current();
+        if (catalog.isPresent()) {
+            return catalog.get().findById(id, currentUserId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Food Not Found."));
+        }
+        return FoodMapper.INSTANCE.toModel(foodReadService.findByIdOrThrow(id), currentUserId);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "foodPages", key = "{#queryRequest, #paginationRequest, @userService.getCurrentUserId()}")
+    @Cacheable(value = "foodPages", key = "{#queryRequest, #paginationRequest, @userService.getCurrentUserId()}",
+            sync = true)
     public PagedFoodResponse findAll(QueryRequest queryRequest, PaginationRequest paginationRequest) {
         log.debug("Finding All Foods");
+        Optional<FoodCatalog> catalog = isNameOrderedListing(queryRequest) ? foodCatalogStore.current()
+                : Optional.empty();
+        if (catalog.isPresent()) {
+            return catalog.get().findPage(queryRequest.getSort().trim().toLowerCase().endsWith(",desc"),
+                    paginationRequest.getPageNumber(), paginationRequest.getPageSize(),
+                    userService.getCurrentUserId());
+        }
         PageRequest pageRequest = PageRequest.of(paginationRequest.getPageNumber(), paginationRequest.getPageSize());
         try {
+            queryCostService.checkFoodQuery(queryRequest);
             Specification<Food> querySpecification = FoodQueryParamsUtil.createQuerySpecification(queryRequest);
             Page<Food> response = foodRepository.findAll(querySpecification, pageRequest);
             return FoodMapper.INSTANCE.toModel(response, userService.getCurrentUserId());
@@ -81,7 +107,10 @@ public class FoodService {
     }
 
     @Transactional
-    @CacheEvict(value = "foodPages", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {"foodPages", "foods"}, allEntries = true),
+            @CacheEvict(value = "foodNutrients", key = "#id")
+    })
     public FoodResponse update(Long id, FoodUpdateRequest request) {
         log.debug("Updating Food By Id: {}", id);
         Food food = foodReadService.findByIdOrThrow(id);
@@ -97,7 +126,10 @@ public class FoodService {
     }
 
     @Transactional
-    @CacheEvict(value = "foodPages", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {"foodPages", "foods"}, allEntries = true),
+            @CacheEvict(value = "foodNutrients", key = "#id")
+    })
     public void deleteById(Long id) {
         log.debug("Deleting Food By Id: {}", id);
         Food food = foodReadService.findByIdOrThrow(id);
@@ -126,6 +158,15 @@ public class FoodService {
         }
     }
 
+    /**
+     * Plain listings ordered by name are served from the off-heap catalog, which keeps foods in that order.
+     */
+    private static boolean isNameOrderedListing(QueryRequest queryRequest) {
+        return (queryRequest.getQuery() == null || queryRequest.getQuery().isBlank())
+                && queryRequest.getSort() != null
+                && NAME_SORTS.contains(queryRequest.getSort().trim().toLowerCase());
+    }
+
     private void canEditOrThrow(@NotNull Long currentUserId, @Nullable Long resourceUserId) {
         if (!currentUserId.equals(resourceUserId)) {
             throw new CannotEditResourceException(ApiResponses.UNOWNED_RESOURCE_RESPONSE);
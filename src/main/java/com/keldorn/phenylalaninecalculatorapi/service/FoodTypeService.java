@@ -33,13 +33,14 @@ public class FoodTypeService {
     private final FoodTypeReadService foodTypeReadService;
 
     @Transactional(readOnly = true)
+    @Cacheable(value = "foodTypes", key = "{#id, @userService.getCurrentUserId()}", sync = true)
     public FoodTypeResponse findById(Long id) {
         log.debug("Finding Food Type Response By Id: {}", id);
         return FoodTypeMapper.INSTANCE.toModel(foodTypeReadService.findByIdOrThrow(id), userService.getCurrentUserId());
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "foodTypePages", key = "{#paginationRequest, @userService.getCurrentUserId()}")
+    @Cacheable(value = "foodTypePages", key = "{#paginationRequest, @userService.getCurrentUserId()}", sync = true)
     public PagedFoodTypeResponse findAll(PaginationRequest paginationRequest) {
         log.debug("Finding All Food Types");
         Pageable pageable = PageRequest.of(paginationRequest.getPageNumber(), paginationRequest.getPageSize());
@@ -57,7 +58,7 @@ public class FoodTypeService {
     }
 
     @Transactional
-    @CacheEvict(value = {"foodTypePages", "foodPages"}, allEntries = true)
+    @CacheEvict(value = {"foodTypePages", "foodPages", "foodTypes", "foods"}, allEntries = true)
     public FoodTypeResponse update(Long id, FoodTypeRequest request) {
         log.debug("Updating Food Type");
         FoodType foodType = foodTypeReadService.findByIdOrThrow(id);
@@ -69,7 +70,7 @@ public class FoodTypeService {
     }
 
     @Transactional
-    @CacheEvict(value = {"foodTypePages", "foodPages"}, allEntries = true)
+    @CacheEvict(value = {"foodTypePages", "foodPages", "foodTypes", "foods"}, allEntries = true)
     public void deleteById(Long id) {
         log.debug("Deleting Food Type By Id: {}", id);
         FoodType foodType = foodTypeReadService.findByIdOrThrow(id);
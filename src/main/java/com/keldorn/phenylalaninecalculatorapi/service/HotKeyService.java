@@ -0,0 +1,147 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheWarmUpProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestHeaders;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository.HotKey;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Counts the cached reads issued by users and periodically adds them to the persisted hot key list, which the
+ * next startup uses to warm the caches up. Requests replayed by the warm-up carry the {@link #getReplayToken()} of
+ * this instance and are not counted, so they do not inflate the keys they replay.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotKeyService {
+
+    private final HotKeyRepository hotKeyRepository;
+    private final CacheWarmUpProperties cacheWarmUpProperties;
+
+    private final Map<HotKey, LongAdder> hits = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String replayToken = UUID.randomUUID().toString();
+
+    public void recordFoodPage(QueryRequest queryRequest, PaginationRequest paginationRequest) {
+        Long userId = UserContext.currentUserId();
+        if (userId != null) {
+            record(HotKey.page("foodPages", userId, queryRequest.getQuery(), queryRequest.getSort(),
+                    paginationRequest.getPageNumber(), paginationRequest.getPageSize()));
+        }
+    }
+
+    public void recordFoodTypePage(PaginationRequest paginationRequest) {
+        Long userId = UserContext.currentUserId();
+        if (userId != null) {
+            record(HotKey.page("foodTypePages", userId, null, null, paginationRequest.getPageNumber(),
+                    paginationRequest.getPageSize()));
+        }
+    }
+
+    public void recordFood(Long id) {
+        Long userId = UserContext.currentUserId();
+        if (userId != null) {
+            record(HotKey.entity("foods", userId, id));
+        }
+    }
+
+    public void recordFoodType(Long id) {
+        Long userId = UserContext.currentUserId();
+        if (userId != null) {
+            record(HotKey.entity("foodTypes", userId, id));
+        }
+    }
+
+    /**
+     * Counts a read served by the response cache, which does not reach the controllers.
+     */
+    public void recordHit(HotKey key) {
+        if (!isReplay()) {
+            count(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.warm-up.flush-interval:1m}")
+    public void flush() {
+        Map<HotKey, Long> counts = new HashMap<>();
+        hits.keySet().forEach(key -> {
+            LongAdder adder = hits.remove(key);
+            if (adder != null) {
+                counts.put(key, adder.sum());
+            }
+        });
+        if (counts.isEmpty()) {
+            return;
+        }
+        try {
+            hotKeyRepository.addHits(counts);
+            int deleted = hotKeyRepository.deleteNotSeenSince(cacheWarmUpProperties.getRetention());
+            log.debug("Flushed {} hot keys, expired {}", counts.size(), deleted);
+        } catch (DataAccessException e) {
+            log.warn("Could not flush hot keys: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts the key and exposes it to the response cache as a request attribute, so hits on the cached response
+     * are counted against the same key.
+     */
+    private void record(HotKey key) {
+        if (isReplay()) {
+            return;
+        }
+        count(key);
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(RequestAttributes.HOT_KEY, key,
+                    org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Tells whether the request is a warm-up replay sent by this node, which must reach the controllers.
+     */
+    public boolean isReplay(HttpServletRequest request) {
+        return replayToken.equals(request.getHeader(RequestHeaders.CACHE_WARM_UP));
+    }
+
+    private boolean isReplay() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && isReplay(attributes.getRequest());
+    }
+
+    private void count(HotKey key) {
+        LongAdder adder = hits.get(key);
+        if (adder == null) {
+            if (hits.size() >= cacheWarmUpProperties.getMaxTrackedKeys()) {
+                return;
+            }
+            adder = hits.computeIfAbsent(key, _ -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+}
@@ -4,6 +4,12 @@ import com.keldorn.phenylalaninecalculatorapi.config.JwtProperties;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -13,13 +19,20 @@ import javax.crypto.SecretKey;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Slf4j
 @Service
@@ -32,12 +45,25 @@ public class JwtService {
     private final SecretKey signingKeyRefresh;
     private final Long accessExpirationTime;
     private final Long refreshExpirationTime;
+    private final JwtParser accessParser;
+    private final JwtParser refreshParser;
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final Cache<ByteBuffer, AccessPrincipal> verifiedAccessTokens;
 
-    public JwtService(JwtProperties jwtProperties) {
+    public JwtService(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
         this.signingKeyAccess = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret().getAccess()));
         this.signingKeyRefresh = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret().getRefresh()));
         this.accessExpirationTime = jwtProperties.getAccess().getExpirationTime().toMillis();
         this.refreshExpirationTime = jwtProperties.getRefresh().getExpirationTime().toMillis();
+        this.accessParser = Jwts.parser().verifyWith(signingKeyAccess).build();
+        this.refreshParser = Jwts.parser().verifyWith(signingKeyRefresh).build();
+        this.accessTokenVerifier = new AccessTokenVerifier(signingKeyAccess);
+        this.verifiedAccessTokens = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getAccess().getVerifiedCacheSize())
+                .expireAfter(Expiry.creating((ByteBuffer _, AccessPrincipal principal) -> principal.remaining()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedAccessTokens, "verifiedAccessTokens");
     }
 
     public long getRefreshExpirationTime() {
@@ -58,6 +84,29 @@ public class JwtService {
         return extractAccessClaims(token);
     }
 
+    /**
+     * Verifies an access token and returns who it was issued to. The principal of a verified token is kept under
+     * the SHA-256 digest of the token until the token expires, so a client reusing its token is not verified and
+     * parsed again. Only the stateless checks are skipped: the account is still looked up wherever it was before.
+     * Tokens in the shape this service issues are verified by {@link AccessTokenVerifier}, any other by jjwt.
+     */
+    public AccessPrincipal verifyAccessToken(String token) {
+        ByteBuffer digest = digest(token);
+        AccessPrincipal cached = verifiedAccessTokens.getIfPresent(digest);
+        if (cached != null && cached.remaining().isPositive()) {
+            return cached;
+        }
+        AccessPrincipal principal = accessTokenVerifier.verify(token);
+        if (principal == null) {
+            Claims claims = extractAccessClaims(token);
+            principal = new AccessPrincipal(extractUserId(claims), extractUsername(claims),
+                    extractRoles(claims).stream().map(SimpleGrantedAuthority::new).toList(),
+                    claims.getExpiration().toInstant());
+        }
+        verifiedAccessTokens.put(digest, principal);
+        return principal;
+    }
+
     public Long extractUserId(Claims claims) {
         log.debug("Extracting User Id.");
         return Long.parseLong(claims.getSubject());
@@ -94,13 +143,18 @@ public class JwtService {
                 .compact();
     }
 
-    private Claims extractAllClaims(String token, SecretKey signingKey) {
+    private static ByteBuffer digest(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Claims extractAllClaims(String token, JwtParser parser) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             log.debug("Error during extracting claims: {}", e.getMessage());
             throw new InvalidJwtTokenReceivedException("Invalid token received");
@@ -108,7 +162,7 @@ public class JwtService {
     }
 
     private Claims extractAccessClaims(String token) {
-        Claims claims = extractAllClaims(token, this.signingKeyAccess);
+        Claims claims = extractAllClaims(token, this.accessParser);
         if (!ACCESS_TYPE.equals(claims.get("type", String.class))) {
             throw new InvalidJwtTokenReceivedException("Invalid token type");
         }
@@ -117,11 +171,25 @@ public class JwtService {
 
     public Long extractUserIdFromRefreshToken(String token) {
         log.debug("Extracting User Id from Refresh Token.");
-        Claims claims = extractAllClaims(token, this.signingKeyRefresh);
+        Claims claims = extractAllClaims(token, this.refreshParser);
         if (!REFRESH_TYPE.equals(claims.get("type", String.class))) {
             throw new InvalidJwtTokenReceivedException("Invalid token type");
         }
         return Long.parseLong(claims.getSubject());
     }
 
+    /**
+     * The verified content of an access token. Immutable, so one instance is shared by every request bearing the
+     * same token.
+     */
+    public record AccessPrincipal(Long userId, String username, List<SimpleGrantedAuthority> authorities,
+                                  Instant expiresAt) {
+
+        private Duration remaining() {
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.QueryCostProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.ApiResponses;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+import com.keldorn.phenylalaninecalculatorapi.exception.QueryCostExceededException;
+import com.keldorn.phenylalaninecalculatorapi.utils.FoodQueryParamsUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryCostService {
+
+    private final QueryCostProperties queryCostProperties;
+
+    public int estimateFoodQuery(QueryRequest queryRequest) {
+        return FoodQueryParamsUtil.estimateCost(queryRequest);
+    }
+
+    public int getBudget() {
+        return queryCostProperties.getBudget();
+    }
+
+    public void checkFoodQuery(QueryRequest queryRequest) {
+        int cost = estimateFoodQuery(queryRequest);
+        log.debug("Estimated food query cost {} of budget {}", cost, getBudget());
+        if (cost > getBudget()) {
+            throw new QueryCostExceededException(ApiResponses.QUERY_COST_EXCEEDED_RESPONSE);
+        }
+    }
+
+}
@@ -33,7 +33,7 @@ public class RefreshTokenService {
                 ZonedDateTime.now(ZoneOffset.UTC));
         var refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(token)
+                .tokenHash(RefreshToken.hash(token))
                 .expiryDate(
                         ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(jwtService.getRefreshExpirationTime() / 1000))
                 .build();
@@ -44,7 +44,7 @@ public class RefreshTokenService {
     @Transactional
     public AuthResponseInternal refresh(String refreshToken, User user) {
         log.debug("Creating access token from refresh token");
-        RefreshToken token = refreshTokenRepository.findByToken(refreshToken)
+        RefreshToken token = refreshTokenRepository.findByTokenHash(RefreshToken.hash(refreshToken))
                 .orElseThrow(() -> new InvalidJwtTokenReceivedException("Invalid token received"));
         if (token.getExpiryDate().isBefore(ZonedDateTime.now(ZoneOffset.UTC))) {
             refreshTokenRepository.delete(token);
@@ -59,7 +59,7 @@ public class RefreshTokenService {
     @Transactional
     public void deleteByToken(String refreshToken) {
         log.debug("Deleting users refresh token");
-        refreshTokenRepository.deleteByToken(refreshToken);
+        refreshTokenRepository.deleteByTokenHash(RefreshToken.hash(refreshToken));
     }
 
 }
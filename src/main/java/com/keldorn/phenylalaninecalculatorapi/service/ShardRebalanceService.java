@@ -0,0 +1,162 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.ShardDataSources;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+import com.keldorn.phenylalaninecalculatorapi.repository.ShardMapRepository;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves buckets of users between shards. A move is done in two steps: {@link #moveBucket} copies the rows and
+ * points the bucket at the target shard, {@link #purgeBucket} checks that the rows reached the target and removes
+ * them from the source. Run the purge once every instance has refreshed its shard map.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRebalanceService {
+
+    /**
+     * Per-user tables in insert order.
+     */
+    private static final List<UserTable> USER_TABLES = List.of(
+            new UserTable("daily_intake", "daily_intake_id"),
+            new UserTable("food_consumption", "food_consumption_id"),
+            new UserTable("food_consumption_archive", "food_consumption_id"),
+            new UserTable("refresh_tokens", "token_id"));
+
+    private final ShardResolver shardResolver;
+    private final ShardDataSources shardDataSources;
+    private final ShardMapRepository shardMapRepository;
+
+    public void moveBucket(int bucket, String targetShard) {
+        String sourceShard = shardResolver.shardForBucket(bucket);
+        if (sourceShard.equals(targetShard)) {
+            log.debug("Bucket {} is already on shard {}", bucket, targetShard);
+            return;
+        }
+        shardDataSources.get(targetShard);
+        List<Long> userIds = findUsersInBucket(bucket);
+        copy(sourceShard, targetShard, userIds);
+        shardMapRepository.assign(bucket, targetShard);
+        shardResolver.refresh();
+        log.info("Moved bucket {} with {} users from shard {} to {}", bucket, userIds.size(), sourceShard,
+                targetShard);
+    }
+
+    /**
+     * Removes the rows of a moved bucket from its previous shard. Nothing is copied again, the target has taken
+     * writes since the cut-over. A source row missing on the target was either written to the source after the
+     * copy or deleted on the target since, so the purge stops and leaves it to be resolved by hand. Only the
+     * checked rows are deleted, rows written to the source during the purge are caught by the next one.
+     */
+    public void purgeBucket(int bucket, String sourceShard) {
+        String targetShard = shardResolver.shardForBucket(bucket);
+        if (sourceShard.equals(targetShard)) {
+            throw new IllegalStateException("Bucket " + bucket + " is still assigned to shard " + sourceShard);
+        }
+        List<Long> userIds = findUsersInBucket(bucket);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        JdbcTemplate source = new JdbcTemplate(shardDataSources.get(sourceShard));
+        JdbcTemplate target = new JdbcTemplate(shardDataSources.get(targetShard));
+        Map<UserTable, List<Long>> verifiedIds = new LinkedHashMap<>();
+        for (UserTable table : USER_TABLES) {
+            List<Long> sourceIds = table.findIds(source, userIds);
+            Set<Long> targetIds = new HashSet<>(table.findIds(target, userIds));
+            List<Long> missing = sourceIds.stream().filter(id -> !targetIds.contains(id)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException(missing.size() + " rows of " + table.name() + " on shard "
+                        + sourceShard + " are missing on shard " + targetShard + ": " + missing);
+            }
+            verifiedIds.put(table, sourceIds);
+        }
+        List<UserTable> tables = new ArrayList<>(USER_TABLES);
+        Collections.reverse(tables);
+        for (UserTable table : tables) {
+            List<Long> ids = verifiedIds.get(table);
+            if (!ids.isEmpty()) {
+                int count = source.update("DELETE FROM " + table.name() + " WHERE " + table.idColumn() + " IN ("
+                        + placeholders(ids) + ")", ids.toArray());
+                log.debug("Purged {} rows of {} from shard {}", count, table.name(), sourceShard);
+            }
+        }
+    }
+
+    private List<Long> findUsersInBucket(int bucket) {
+        return new JdbcTemplate(shardDataSources.get(ShardingProperties.PRIMARY_SHARD))
+                .queryForList("SELECT user_id FROM users", Long.class)
+                .stream()
+                .filter(userId -> shardResolver.bucketFor(userId) == bucket)
+                .toList();
+    }
+
+    private void copy(String sourceShard, String targetShard, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        JdbcTemplate source = new JdbcTemplate(shardDataSources.get(sourceShard));
+        JdbcTemplate target = new JdbcTemplate(shardDataSources.get(targetShard));
+        for (UserTable table : USER_TABLES) {
+            Integer count = source.query("SELECT * FROM " + table.name() + " WHERE user_id IN ("
+                    + placeholders(userIds) + ")", rs -> {
+                ResultSetMetaData metaData = rs.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+                List<Object[]> rows = new ArrayList<>();
+                while (rs.next()) {
+                    Object[] row = new Object[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    rows.add(row);
+                }
+                if (!rows.isEmpty()) {
+                    target.batchUpdate(upsert(table.name(), columns), rows);
+                }
+                return rows.size();
+            }, userIds.toArray());
+            log.debug("Copied {} rows of {} from shard {} to {}", count, table.name(), sourceShard, targetShard);
+        }
+    }
+
+    private static String upsert(String table, List<String> columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns) + ") ON DUPLICATE KEY UPDATE "
+                + columns.stream().map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String placeholders(List<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+
+    private record UserTable(String name, String idColumn) {
+
+        private List<Long> findIds(JdbcTemplate jdbcTemplate, List<Long> userIds) {
+            return jdbcTemplate.queryForList("SELECT " + idColumn + " FROM " + name + " WHERE user_id IN ("
+                    + placeholders(userIds) + ")", Long.class, userIds.toArray());
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+import com.keldorn.phenylalaninecalculatorapi.repository.ShardMapRepository;
+
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maps users to shards in two steps: the user id is hashed onto a fixed ring of buckets, and the {@code shard_map}
+ * table assigns buckets to shards. Re-balancing moves whole buckets, so only the users of a moved bucket change
+ * shard. Buckets without an entry stay on the primary.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardResolver {
+
+    private final ShardingProperties shardingProperties;
+    private final ShardMapRepository shardMapRepository;
+
+    private volatile Map<Integer, String> shardMap = Map.of();
+
+    public int bucketFor(Long userId) {
+        return Math.floorMod(mix(userId), shardingProperties.getBuckets());
+    }
+
+    public String shardFor(Long userId) {
+        return shardForBucket(bucketFor(userId));
+    }
+
+    public String shardForBucket(int bucket) {
+        return shardMap.getOrDefault(bucket, ShardingProperties.PRIMARY_SHARD);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.sharding.refresh-interval:30s}")
+    public void refresh() {
+        shardMap = Map.copyOf(shardMapRepository.findAll());
+        log.debug("Loaded shard map with {} assigned buckets", shardMap.size());
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads sequential user ids evenly over the buckets.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
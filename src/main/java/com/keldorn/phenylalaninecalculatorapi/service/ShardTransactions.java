@@ -0,0 +1,141 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+import com.keldorn.phenylalaninecalculatorapi.utils.ShardContext;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves work to the database that holds its tables when it is called from a transaction on another one. With
+ * sharding disabled everything lives on the primary, so the work joins the surrounding transaction and commits or
+ * rolls back with it. With sharding enabled it runs in a transaction of its own, which the
+ * {@link com.keldorn.phenylalaninecalculatorapi.config.ShardTransactionListener} routes by its name.
+ */
+@Service
+public class ShardTransactions {
+
+    private final @Nullable TransactionTemplate userShardTransaction;
+    private final @Nullable TransactionTemplate primaryReadTransaction;
+    private final @Nullable TransactionTemplate primaryWriteTransaction;
+    private final TransactionTemplate writableReadTransaction;
+
+    public ShardTransactions(PlatformTransactionManager transactionManager, ShardingProperties shardingProperties) {
+        writableReadTransaction = new TransactionTemplate(transactionManager);
+        writableReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (shardingProperties.isEnabled()) {
+            userShardTransaction = new TransactionTemplate(transactionManager);
+            userShardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            userShardTransaction.setName(UserShard.class.getName() + ".runOnUserShard");
+            primaryReadTransaction = new TransactionTemplate(transactionManager);
+            primaryReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            primaryReadTransaction.setReadOnly(true);
+            primaryReadTransaction.setName(ShardTransactions.class.getName() + ".readOnPrimary");
+            primaryWriteTransaction = new TransactionTemplate(transactionManager);
+            primaryWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            primaryWriteTransaction.setName(ShardTransactions.class.getName() + ".writeOnPrimary");
+        } else {
+            userShardTransaction = null;
+            primaryReadTransaction = null;
+            primaryWriteTransaction = null;
+        }
+    }
+
+    /**
+     * Runs the action as the given user on that user's shard. A {@code null} user runs on the primary.
+     */
+    public <T> T runOnUserShard(@Nullable Long userId, Supplier<T> action) {
+        return UserContext.runAs(userId, () -> userShardTransaction != null
+                ? userShardTransaction.execute(_ -> action.get())
+                : action.get());
+    }
+
+    /**
+     * Reads tables of the given user from the writable database of that user's shard, never from a replica that may
+     * not have the latest writes yet. From a read-only transaction it runs in a read-write transaction of its own;
+     * for reads whose result is kept beyond the request, such as in-memory caches.
+     */
+    public <T> T readOnUserShardPrimary(Long userId, Supplier<T> action) {
+        if (userShardTransaction != null) {
+            return runOnUserShard(userId, action);
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return action.get();
+        }
+        return UserContext.runAs(userId, () -> writableReadTransaction.execute(_ -> action.get()));
+    }
+
+    /**
+     * Runs the action on the shard of the user once the current transaction on the primary commits, so it is not
+     * applied when that transaction rolls back. With sharding disabled it joins the current transaction instead.
+     * The shard and the primary cannot commit together, so the action must be safe to run again after a failure.
+     */
+    public void runOnUserShardAfterCommit(Long userId, Runnable action) {
+        if (userShardTransaction == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            runOnUserShard(userId, () -> {
+                action.run();
+                return null;
+            });
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runOnUserShard(userId, () -> {
+                    action.run();
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads global tables, such as the food catalog or {@code users}, from a {@link UserSharded} transaction.
+     */
+    public <T> T readOnPrimary(Supplier<T> action) {
+        if (primaryReadTransaction == null || ShardingProperties.PRIMARY_SHARD.equals(ShardContext.currentShard())) {
+            return action.get();
+        }
+        return primaryReadTransaction.execute(_ -> action.get());
+    }
+
+    /**
+     * Writes global tables, such as {@code cache_invalidation}, on behalf of the current transaction. On the primary
+     * the write joins that transaction. From a {@link UserSharded} transaction it runs on the primary once the shard
+     * transaction commits, since the two cannot commit together, and is dropped if it rolls back.
+     */
+    public void writeOnPrimary(Runnable action) {
+        TransactionTemplate transaction = primaryWriteTransaction;
+        if (transaction == null || ShardingProperties.PRIMARY_SHARD.equals(ShardContext.currentShard())) {
+            action.run();
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transaction.executeWithoutResult(_ -> action.run());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transaction.executeWithoutResult(_ -> action.run());
+            }
+        });
+    }
+
+    /**
+     * Names the user shard transactions, so they are recognised as {@link UserSharded}.
+     */
+    @UserSharded
+    private static final class UserShard {
+    }
+
+}
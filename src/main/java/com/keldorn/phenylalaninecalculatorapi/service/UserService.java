@@ -9,6 +9,7 @@ import com.keldorn.phenylalaninecalculatorapi.exception.DeletedUserTokenReceived
 import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
 import com.keldorn.phenylalaninecalculatorapi.mapper.UserMapper;
 import com.keldorn.phenylalaninecalculatorapi.repository.UserRepository;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -80,6 +81,10 @@ public class UserService {
 
     public Long getCurrentUserId() {
         log.debug("Getting current user's id");
+        Long override = UserContext.getOverride();
+        if (override != null) {
+            return override;
+        }
         Long userId = (Long) request.getAttribute(RequestAttributes.CURRENT_USER_ID);
         if (userId != null) {
             return userId;
@@ -0,0 +1,40 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.annotation.UserSharded;
+import com.keldorn.phenylalaninecalculatorapi.repository.DailyIntakeRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@UserSharded
+@RequiredArgsConstructor
+public class UserShardDataService {
+
+    private final DailyIntakeRepository dailyIntakeRepository;
+    private final FoodConsumptionRepository foodConsumptionRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * Deletes the per-user rows of a user. Call it through {@link ShardTransactions#runOnUserShard} from
+     * transactions on the primary, so it reaches the shard of the user when sharding is enabled.
+     */
+    @Transactional
+    public void deleteUserData(Long userId) {
+        int dailyIntakeCount = dailyIntakeRepository.deleteDailyIntakeByUserId(userId);
+        log.debug("Deleted daily intake {}, for user {}", dailyIntakeCount, userId);
+        int foodConsumptionCount = foodConsumptionRepository.deleteFoodConsumptionByUserId(userId);
+        log.debug("Deleted food consumption {}, for user {}", foodConsumptionCount, userId);
+        int archivedCount = foodConsumptionRepository.deleteArchivedFoodConsumptionByUserId(userId);
+        log.debug("Deleted archived food consumption {}, for user {}", archivedCount, userId);
+        refreshTokenRepository.deleteByUser_UserId(userId);
+        log.debug("Deleted refresh tokens for user {}", userId);
+    }
+
+}
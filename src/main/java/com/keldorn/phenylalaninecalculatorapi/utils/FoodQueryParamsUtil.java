@@ -5,6 +5,7 @@ import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import lombok.experimental.UtilityClass;
 
@@ -16,10 +17,13 @@ import io.github.perplexhub.rsql.RSQLJPASupport;
 public class FoodQueryParamsUtil {
 
     private static final Map<String, String> PROPERTY_MAP = new HashMap<>();
+    private static final Map<String, String> NORMALIZED_SELECTORS = Map.of("name", "nameNormalized");
+    private static final Set<String> INDEXED_PATHS = Set.of("id", "nameNormalized");
 
     static {
         PROPERTY_MAP.put("id", "id");
         PROPERTY_MAP.put("name", "name");
+        PROPERTY_MAP.put("nameNormalized", "nameNormalized");
         PROPERTY_MAP.put("protein", "protein");
         PROPERTY_MAP.put("calories", "calories");
         PROPERTY_MAP.put("phenylalanine", "phenylalanine");
@@ -31,7 +35,8 @@ public class FoodQueryParamsUtil {
     public static Specification<Food> createQuerySpecification(QueryRequest request) {
         Specification<Food> spec = ((root, _, criteriaBuilder) -> criteriaBuilder.isFalse(root.get("isDeleted")));
         if (isNotBlank(request.getQuery())) {
-            spec = spec.and(RSQLJPASupport.toSpecification(request.getQuery(), PROPERTY_MAP));
+            spec = spec.and(RSQLJPASupport.toSpecification(
+                    RsqlQueryNormalizer.normalize(request.getQuery(), NORMALIZED_SELECTORS), PROPERTY_MAP));
         }
         if (isNotBlank(request.getSort())) {
             spec = spec.and(RSQLJPASupport.toSort(request.getSort(), PROPERTY_MAP));
@@ -39,6 +44,13 @@ public class FoodQueryParamsUtil {
         return spec;
     }
 
+    public static int estimateCost(QueryRequest request) {
+        String query = isNotBlank(request.getQuery())
+                ? RsqlQueryNormalizer.normalize(request.getQuery(), NORMALIZED_SELECTORS)
+                : null;
+        return RsqlCostEstimator.estimate(query, request.getSort(), PROPERTY_MAP, INDEXED_PATHS);
+    }
+
     private static boolean isNotBlank(String input) {
         return input != null && !input.isBlank();
     }
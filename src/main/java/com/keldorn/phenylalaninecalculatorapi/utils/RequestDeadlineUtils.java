@@ -0,0 +1,32 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import lombok.experimental.UtilityClass;
+
+import org.springframework.web.context.request.RequestContextHolder;
+
+@UtilityClass
+public class RequestDeadlineUtils {
+
+    /**
+     * Returns the time left until the deadline of the current request, or empty outside a request or when no
+     * deadline was set.
+     */
+    public static Optional<Duration> remaining() {
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return Optional.empty();
+        }
+        Object deadline = requestAttributes.getAttribute(RequestAttributes.REQUEST_DEADLINE,
+                org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
+        return deadline instanceof Instant instant
+                ? Optional.of(Duration.between(Instant.now(), instant))
+                : Optional.empty();
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Estimates the heap retained by an object graph, assuming a 64-bit JVM with compressed references. JDK types the
+ * cached responses are made of are sized by formula, application and library types by walking their fields.
+ * Objects reachable more than once are counted once, enums and class references are shared and not counted.
+ */
+@UtilityClass
+public class RetainedSizeEstimator {
+
+    static final int HEADER = 12;
+    static final int REFERENCE = 4;
+    static final int ARRAY_HEADER = 16;
+    static final int BOXED = 16;
+    static final int STRING = 24;
+    static final int BIG_DECIMAL = 40;
+    static final int BIG_INTEGER = 40;
+    static final int TEMPORAL = 24;
+    static final int HASH_NODE = 32;
+    static final int COLLECTION = 24;
+    static final int HASH_TABLE = 48;
+
+    private static final ClassValue<List<Field>> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            return referenceFields(type);
+        }
+    };
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return shallowSize(type);
+        }
+    };
+
+    public static long estimate(Object root) {
+        return estimate(root, new IdentityHashMap<>());
+    }
+
+    private static long estimate(Object object, Map<Object, Boolean> visited) {
+        if (object == null || object instanceof Enum<?> || object instanceof Class<?>
+                || visited.put(object, Boolean.TRUE) != null) {
+            return 0;
+        }
+        return switch (object) {
+            case String string -> STRING + align(ARRAY_HEADER + (long) string.length() * (isLatin1(string) ? 1 : 2));
+            case Number number when isBoxed(number) -> BOXED;
+            case Boolean _, Character _ -> BOXED;
+            case BigDecimal decimal -> BIG_DECIMAL
+                    + (decimal.precision() > 18 ? bigInteger(decimal.unscaledValue()) : 0);
+            case BigInteger integer -> bigInteger(integer);
+            case TemporalAccessor _ -> TEMPORAL;
+            case Collection<?> collection -> collection(collection, visited);
+            case Map<?, ?> map -> map(map, visited);
+            default -> object.getClass().isArray() ? array(object, visited) : fields(object, visited);
+        };
+    }
+
+    private static long collection(Collection<?> collection, Map<Object, Boolean> visited) {
+        long size = collection instanceof Set<?>
+                ? HASH_TABLE + align(ARRAY_HEADER + (long) tableLength(collection.size()) * REFERENCE)
+                + (long) collection.size() * HASH_NODE
+                : COLLECTION + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+        for (Object element : collection) {
+            size += estimate(element, visited);
+        }
+        return size;
+    }
+
+    private static long map(Map<?, ?> map, Map<Object, Boolean> visited) {
+        long size = HASH_TABLE + align(ARRAY_HEADER + (long) tableLength(map.size()) * REFERENCE)
+                + (long) map.size() * HASH_NODE;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            size += estimate(entry.getKey(), visited) + estimate(entry.getValue(), visited);
+        }
+        return size;
+    }
+
+    private static long array(Object array, Map<Object, Boolean> visited) {
+        int length = Array.getLength(array);
+        Class<?> componentType = array.getClass().getComponentType();
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        long size = align(ARRAY_HEADER + (long) length * REFERENCE);
+        for (int i = 0; i < length; i++) {
+            size += estimate(Array.get(array, i), visited);
+        }
+        return size;
+    }
+
+    private static long fields(Object object, Map<Object, Boolean> visited) {
+        Class<?> type = object.getClass();
+        long size = SHALLOW_SIZES.get(type);
+        for (Field field : REFERENCE_FIELDS.get(type)) {
+            try {
+                size += estimate(field.get(object), visited);
+            } catch (IllegalAccessException _) {
+                // Not reachable, the fields were made accessible in referenceFields
+            }
+        }
+        return size;
+    }
+
+    private static long shallowSize(Class<?> type) {
+        long size = HEADER;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static List<Field> referenceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        if (type.getModule().isNamed()) {
+            return fields;
+        }
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (InaccessibleObjectException _) {
+                        // Counted as a reference in the shallow size only
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static long bigInteger(BigInteger integer) {
+        return BIG_INTEGER + align(ARRAY_HEADER + (long) ((integer.bitLength() + 31) / 32) * Integer.BYTES);
+    }
+
+    private static boolean isBoxed(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Double
+                || number instanceof Float || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isLatin1(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tableLength(int size) {
+        return size == 0 ? 0 : Integer.highestOneBit(Math.max(size * 4 / 3, 1) * 2 - 1);
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+}
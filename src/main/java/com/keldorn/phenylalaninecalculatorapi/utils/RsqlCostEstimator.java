@@ -0,0 +1,95 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.experimental.UtilityClass;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+import io.github.perplexhub.rsql.RSQLOperators;
+
+/**
+ * Scores RSQL filters and sorts by how much work they are likely to cause in the database. The numbers are
+ * relative units, not row estimates: an indexed equality costs 1, anything that scans or joins costs more.
+ */
+@UtilityClass
+public class RsqlCostEstimator {
+
+    static final int INDEXED_COST = 1;
+    static final int SCAN_COST = 10;
+    static final int JOIN_COST = 15;
+    static final int WILDCARD_SCAN_COST = 25;
+    static final int OR_BRANCH_COST = 5;
+    static final int NESTING_COST = 2;
+    static final int SORT_SCAN_COST = 10;
+
+    private static final String WILDCARD = "*";
+    private static final RSQLParser PARSER = new RSQLParser(RSQLOperators.supportedOperators());
+    private static final Set<String> NEGATION_OPERATORS = Set.of("!=", "=out=");
+    private static final Set<String> LIKE_OPERATORS = Set.of("=like=", "=ilike=", "=notlike=", "=inotlike=");
+
+    public static int estimate(String query, String sort, Map<String, String> propertyMap, Set<String> indexedPaths) {
+        int cost = 0;
+        if (query != null && !query.isBlank()) {
+            cost += PARSER.parse(query).accept(new Visitor(propertyMap, indexedPaths), 0);
+        }
+        if (sort != null && !sort.isBlank()) {
+            cost += estimateSort(sort, propertyMap, indexedPaths);
+        }
+        return cost;
+    }
+
+    private static int estimateSort(String sort, Map<String, String> propertyMap, Set<String> indexedPaths) {
+        return Arrays.stream(sort.split(";"))
+                .map(order -> order.split(",")[0].trim())
+                .map(selector -> propertyMap.getOrDefault(selector, selector))
+                .mapToInt(path -> (indexedPaths.contains(path) ? 0 : SORT_SCAN_COST) + joinCost(path))
+                .sum();
+    }
+
+    private static int joinCost(String path) {
+        return (int) path.chars().filter(c -> c == '.').count() * JOIN_COST;
+    }
+
+    private record Visitor(Map<String, String> propertyMap, Set<String> indexedPaths)
+            implements RSQLVisitor<Integer, Integer> {
+
+        @Override
+        public Integer visit(AndNode node, Integer depth) {
+            return children(node, depth) + NESTING_COST * depth;
+        }
+
+        @Override
+        public Integer visit(OrNode node, Integer depth) {
+            return children(node, depth) + OR_BRANCH_COST * (node.getChildren().size() - 1) + NESTING_COST * depth;
+        }
+
+        @Override
+        public Integer visit(ComparisonNode node, Integer depth) {
+            String path = propertyMap.getOrDefault(node.getSelector(), node.getSelector());
+            String operator = node.getOperator().getSymbol();
+            List<String> arguments = node.getArguments();
+            boolean sargable = indexedPaths.contains(path) && !NEGATION_OPERATORS.contains(operator);
+            int cost = sargable ? INDEXED_COST : SCAN_COST;
+            if (LIKE_OPERATORS.contains(operator) || arguments.stream().anyMatch(a -> a.startsWith(WILDCARD))) {
+                cost += WILDCARD_SCAN_COST;
+            }
+            return cost + joinCost(path) + arguments.size() - 1;
+        }
+
+        private int children(LogicalNode node, int depth) {
+            return node.getChildren().stream()
+                    .mapToInt(child -> child.accept(this, depth + 1))
+                    .sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.experimental.UtilityClass;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.NoArgRSQLVisitorAdapter;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import io.github.perplexhub.rsql.RSQLOperators;
+
+/**
+ * Brings RSQL queries into a canonical form before they are translated to criteria queries.
+ * <ul>
+ *     <li>Wildcard equality prefix searches ({@code name=='app*'}, translated to {@code name LIKE 'app%'}) on
+ *     normalized properties move to their generated, indexed column with the folded argument, which is answered
+ *     with an index range scan. Both columns use an accent- and case-insensitive collation, so the rewrite matches
+ *     the same rows. {@code =ilike=} is left untouched: rsql-jpa wraps its argument as {@code %...%}, so it is an
+ *     infix search whatever wildcards the argument has and cannot use the index.</li>
+ *     <li>Operands of {@code and}/{@code or} are sorted, so structurally equal filters produce the same criteria
+ *     tree and share one cached query plan regardless of the order the client wrote them in.</li>
+ * </ul>
+ */
+@UtilityClass
+public class RsqlQueryNormalizer {
+
+    private static final String WILDCARD = "*";
+    private static final RSQLParser PARSER = new RSQLParser(RSQLOperators.supportedOperators());
+
+    public static String normalize(String query, Map<String, String> normalizedSelectors) {
+        return PARSER.parse(query).accept(new Visitor(normalizedSelectors));
+    }
+
+    static String fold(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isPrefixPattern(List<String> arguments) {
+        if (arguments.size() != 1) {
+            return false;
+        }
+        String argument = arguments.getFirst();
+        return argument.endsWith(WILDCARD) && argument.indexOf(WILDCARD) == argument.length() - 1
+                && argument.length() > 1;
+    }
+
+    private static String quote(String argument) {
+        return "'" + argument.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static final class Visitor extends NoArgRSQLVisitorAdapter<String> {
+
+        private final Map<String, String> normalizedSelectors;
+
+        private Visitor(Map<String, String> normalizedSelectors) {
+            this.normalizedSelectors = normalizedSelectors;
+        }
+
+        @Override
+        public String visit(AndNode node) {
+            return join(node, ";");
+        }
+
+        @Override
+        public String visit(OrNode node) {
+            return join(node, ",");
+        }
+
+        @Override
+        public String visit(ComparisonNode node) {
+            String normalizedSelector = normalizedSelectors.get(node.getSelector());
+            if (normalizedSelector != null && RSQLOperators.EQUAL.equals(node.getOperator())
+                    && isPrefixPattern(node.getArguments())) {
+                return normalizedSelector + "==" + quote(fold(node.getArguments().getFirst()));
+            }
+            List<String> arguments = node.getArguments();
+            String value = arguments.size() == 1 && !node.getOperator().isMultiValue()
+                    ? quote(arguments.getFirst())
+                    : arguments.stream().map(RsqlQueryNormalizer::quote)
+                    .collect(Collectors.joining(",", "(", ")"));
+            return node.getSelector() + node.getOperator().getSymbol() + value;
+        }
+
+        private String join(LogicalNode node, String separator) {
+            return node.getChildren().stream()
+                    .map(child -> child.accept(this))
+                    .sorted()
+                    .collect(Collectors.joining(separator, "(", ")"));
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Thread-bound shard selection. Every new transaction pushes the shard it runs on and pops it when it completes,
+ * so a transaction started inside another one restores the outer shard afterwards.
+ */
+@UtilityClass
+public class ShardContext {
+
+    private static final ThreadLocal<Deque<Frame>> SHARDS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static String currentShard() {
+        Frame frame = SHARDS.get().peek();
+        return frame != null ? frame.shard() : ShardingProperties.PRIMARY_SHARD;
+    }
+
+    public static void push(Object owner, String shard) {
+        SHARDS.get().push(new Frame(owner, shard));
+    }
+
+    public static void pop(Object owner) {
+        Deque<Frame> frames = SHARDS.get();
+        if (!frames.isEmpty() && frames.peek().owner() == owner) {
+            frames.pop();
+        }
+        if (frames.isEmpty()) {
+            SHARDS.remove();
+        }
+    }
+
+    private record Frame(Object owner, String shard) {
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+
+import java.util.function.Supplier;
+
+import lombok.experimental.UtilityClass;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the user the current thread works for. Code running outside the request of that user, such as
+ * maintenance tooling or background cache reloads, binds the user explicitly with {@link #runAs}.
+ */
+@UtilityClass
+public class UserContext {
+
+    private static final ThreadLocal<Long> USER_OVERRIDE = new ThreadLocal<>();
+
+    public static <T> T runAs(@Nullable Long userId, Supplier<T> action) {
+        Long previous = USER_OVERRIDE.get();
+        USER_OVERRIDE.set(userId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                USER_OVERRIDE.remove();
+            } else {
+                USER_OVERRIDE.set(previous);
+            }
+        }
+    }
+
+    public static @Nullable Long getOverride() {
+        return USER_OVERRIDE.get();
+    }
+
+    /**
+     * Returns the bound user, falling back to the authenticated user of the current request.
+     */
+    public static @Nullable Long currentUserId() {
+        Long override = USER_OVERRIDE.get();
+        if (override != null) {
+            return override;
+        }
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        return requestAttributes.getAttribute(RequestAttributes.CURRENT_USER_ID,
+                org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST) instanceof Long userId
+                ? userId
+                : null;
+    }
+
+}
@@ -3,4 +3,9 @@
 -- changeset Patai Zoltan:add-role-user
 -- Adds ROLE-USER to Role
 -- rollback DELETE FROM roles;
-INSERT IGNORE INTO roles (name) VALUES ('ROLE_USER');
\ No newline at end of file
+INSERT IGNORE INTO roles (name) VALUES ('ROLE_USER');
+
+-- changeset Patai Zoltan:add-role-admin
+-- Adds ROLE_ADMIN to Role, granted by hand to operators of the actuator endpoints
+-- rollback DELETE FROM roles WHERE name = 'ROLE_ADMIN';
+INSERT IGNORE INTO roles (name) VALUES ('ROLE_ADMIN');
@@ -176,4 +176,174 @@ ALTER TABLE users DROP COLUMN role;
 -- changeset Patai Zoltan:add-idx-food-consumption-user-consumed-at
 -- Adds composite index on (user_id, consumed_at) to optimize date-range queries
 -- rollback DROP INDEX idx_food_consumption_user_consumed_at ON food_consumption;
-CREATE INDEX idx_food_consumption_user_consumed_at ON food_consumption (user_id, consumed_at);
\ No newline at end of file
+CREATE INDEX idx_food_consumption_user_consumed_at ON food_consumption (user_id, consumed_at);
+
+-- changeset Patai Zoltan:create-id-generator-table
+-- Creates the pooled id generator table used by the write-heavy entities
+-- rollback DROP TABLE id_generator;
+CREATE TABLE id_generator
+(
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT
+);
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'food', COALESCE(MAX(food_id), 0) + 1 FROM food;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'food_consumption', COALESCE(MAX(food_consumption_id), 0) + 1 FROM food_consumption;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'daily_intake', COALESCE(MAX(daily_intake_id), 0) + 1 FROM daily_intake;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'refresh_tokens', COALESCE(MAX(token_id), 0) + 1 FROM refresh_tokens;
+
+
+-- changeset Patai Zoltan:drop-food-consumption-foreign-keys
+-- Drops the foreign keys of Food Consumption, InnoDB does not support them on partitioned tables
+-- rollback ALTER TABLE food_consumption ADD FOREIGN KEY (food_id) REFERENCES food (food_id); ALTER TABLE food_consumption ADD FOREIGN KEY (user_id) REFERENCES users (user_id);
+ALTER TABLE food_consumption DROP FOREIGN KEY food_consumption_ibfk_1;
+ALTER TABLE food_consumption DROP FOREIGN KEY food_consumption_ibfk_2;
+
+-- changeset Patai Zoltan:partition-food-consumption-by-month
+-- Partitions Food Consumption by the month of consumed_at, the partition key has to be part of the primary key
+-- rollback ALTER TABLE food_consumption REMOVE PARTITIONING; ALTER TABLE food_consumption DROP PRIMARY KEY, ADD PRIMARY KEY (food_consumption_id);
+ALTER TABLE food_consumption MODIFY consumed_at DATETIME(6) NOT NULL;
+ALTER TABLE food_consumption DROP PRIMARY KEY, ADD PRIMARY KEY (food_consumption_id, consumed_at);
+ALTER TABLE food_consumption PARTITION BY RANGE (TO_DAYS(consumed_at))
+    (
+        PARTITION p_initial VALUES LESS THAN (TO_DAYS('2026-01-01')),
+        PARTITION p202601 VALUES LESS THAN (TO_DAYS('2026-02-01')),
+        PARTITION p202602 VALUES LESS THAN (TO_DAYS('2026-03-01')),
+        PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01')),
+        PARTITION p202604 VALUES LESS THAN (TO_DAYS('2026-05-01')),
+        PARTITION p202605 VALUES LESS THAN (TO_DAYS('2026-06-01')),
+        PARTITION p202606 VALUES LESS THAN (TO_DAYS('2026-07-01')),
+        PARTITION p202607 VALUES LESS THAN (TO_DAYS('2026-08-01')),
+        PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')),
+        PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')),
+        PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+        PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+        PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
+
+-- changeset Patai Zoltan:create-food-consumption-archive-table
+-- Creates the compressed archive table for Food Consumption partitions past the archive horizon
+-- rollback DROP TABLE food_consumption_archive;
+CREATE TABLE food_consumption_archive
+(
+    food_consumption_id  BIGINT      NOT NULL PRIMARY KEY,
+    amount               DECIMAL(10, 2),
+    phenylalanine_amount DECIMAL(12, 4),
+    consumed_at          DATETIME(6) NOT NULL,
+    food_id              BIGINT,
+    user_id              BIGINT,
+    created_at           DATETIME(6),
+    updated_at           DATETIME(6),
+    INDEX idx_food_consumption_archive_user_consumed_at (user_id, consumed_at)
+) ROW_FORMAT = COMPRESSED;
+-- changeset Patai Zoltan:create-food-tombstone-tables
+-- Creates the tombstone tables that soft-deleted Food and Food Type rows are moved to
+-- rollback DROP TABLE food_tombstone; DROP TABLE food_type_tombstone;
+CREATE TABLE food_tombstone
+(
+    food_id       BIGINT       NOT NULL PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    protein       DECIMAL(10, 2),
+    calories      DECIMAL(10, 2),
+    phenylalanine DECIMAL(10, 2),
+    food_type_id  BIGINT,
+    user_id       BIGINT,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    archived_at   DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+CREATE TABLE food_type_tombstone
+(
+    food_type_id BIGINT       NOT NULL PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    multiplier   INT          NOT NULL,
+    user_id      BIGINT,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    archived_at  DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+-- changeset Patai Zoltan:add-food-name-normalized-column
+-- Adds a lower-cased, accent-insensitive generated copy of the Food name with an index for prefix searches
+-- rollback DROP INDEX idx_food_name_normalized ON food; ALTER TABLE food DROP COLUMN name_normalized;
+ALTER TABLE food ADD COLUMN name_normalized VARCHAR(255) COLLATE utf8mb4_0900_ai_ci
+    GENERATED ALWAYS AS (LOWER(name)) STORED;
+CREATE INDEX idx_food_name_normalized ON food (name_normalized);
+
+-- changeset Patai Zoltan:create-shard-map-table
+-- Assigns user hash buckets to shards, buckets without a row stay on the primary
+-- rollback DROP TABLE shard_map;
+CREATE TABLE shard_map
+(
+    bucket     INT         NOT NULL PRIMARY KEY,
+    shard_id   VARCHAR(64) NOT NULL,
+    updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
+
+-- changeset Patai Zoltan:create-cache-invalidation-table
+-- Change-log of cache evictions, tailed by every node to keep their local caches coherent
+-- rollback DROP TABLE cache_invalidation;
+CREATE TABLE cache_invalidation
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    cache_name VARCHAR(64) NOT NULL,
+    origin     VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    INDEX idx_cache_invalidation_created_at (created_at)
+);
+
+-- changeset Patai Zoltan:create-cache-hot-key-table
+-- Request counts of cached reads, used to warm the caches up on startup
+-- rollback DROP TABLE cache_hot_key;
+CREATE TABLE cache_hot_key
+(
+    key_hash    BINARY(32)   NOT NULL PRIMARY KEY,
+    cache_name  VARCHAR(64)  NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    query       VARCHAR(500),
+    sort        VARCHAR(200),
+    page_number INT,
+    page_size   INT,
+    entity_id   BIGINT,
+    hits        BIGINT       NOT NULL,
+    last_seen   DATETIME(6)  NOT NULL,
+    INDEX idx_cache_hot_key_hits (hits)
+);
+
+-- changeset Patai Zoltan:hash-refresh-tokens
+-- Replaces the stored refresh tokens with their SHA-256 digest, existing tokens keep working since the digest is computed from them
+-- rollback DELETE FROM refresh_tokens; ALTER TABLE refresh_tokens DROP COLUMN token_hash, ADD COLUMN token VARCHAR(500) UNIQUE NOT NULL;
+ALTER TABLE refresh_tokens ADD COLUMN token_hash BINARY(32) NULL;
+UPDATE refresh_tokens SET token_hash = UNHEX(SHA2(token, 256));
+ALTER TABLE refresh_tokens MODIFY token_hash BINARY(32) NOT NULL,
+    ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    DROP COLUMN token;
+
+-- changeset Patai Zoltan:add-food-snapshot-to-food-consumption
+-- Copies the Food name and phenylalanine onto each Food Consumption so listings no longer join the food tables
+-- rollback ALTER TABLE food_consumption DROP COLUMN food_name, DROP COLUMN food_phenylalanine; ALTER TABLE food_consumption_archive DROP COLUMN food_name, DROP COLUMN food_phenylalanine;
+ALTER TABLE food_consumption ADD COLUMN food_name VARCHAR(255), ADD COLUMN food_phenylalanine DECIMAL(10, 2);
+ALTER TABLE food_consumption_archive ADD COLUMN food_name VARCHAR(255), ADD COLUMN food_phenylalanine DECIMAL(10, 2);
+UPDATE food_consumption fc JOIN food f ON f.food_id = fc.food_id
+SET fc.food_name = f.name, fc.food_phenylalanine = f.phenylalanine;
+UPDATE food_consumption fc JOIN food_tombstone ft ON ft.food_id = fc.food_id
+SET fc.food_name = ft.name, fc.food_phenylalanine = ft.phenylalanine
+WHERE fc.food_name IS NULL;
+UPDATE food_consumption_archive fc JOIN food f ON f.food_id = fc.food_id
+SET fc.food_name = f.name, fc.food_phenylalanine = f.phenylalanine;
+UPDATE food_consumption_archive fc JOIN food_tombstone ft ON ft.food_id = fc.food_id
+SET fc.food_name = ft.name, fc.food_phenylalanine = ft.phenylalanine
+WHERE fc.food_name IS NULL;
+
+-- changeset Patai Zoltan:drop-user-foreign-keys-of-sharded-tables
+-- Drops the foreign keys of per-user tables to users, which live on the primary only once users are sharded, skipped until sharding is enabled
+-- rollback ALTER TABLE daily_intake ADD FOREIGN KEY (user_id) REFERENCES users (user_id); ALTER TABLE refresh_tokens ADD FOREIGN KEY (user_id) REFERENCES users (user_id);
+-- preconditions onFail:CONTINUE
+-- precondition-sql-check expectedResult:1 SELECT '${shardingEnabled}' = 'true'
+ALTER TABLE daily_intake DROP FOREIGN KEY daily_intake_ibfk_1;
+ALTER TABLE refresh_tokens DROP FOREIGN KEY refresh_tokens_ibfk_1;
+
+-- changeset Patai Zoltan:add-cache-key-to-cache-invalidation
+-- Records the evicted key, so other nodes evict a single entry instead of clearing the whole cache
+-- rollback ALTER TABLE cache_invalidation DROP COLUMN cache_key;
+ALTER TABLE cache_invalidation ADD COLUMN cache_key VARCHAR(255) NULL AFTER cache_name;
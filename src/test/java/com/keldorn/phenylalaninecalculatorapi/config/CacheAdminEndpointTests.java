@@ -0,0 +1,104 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CacheAdminEndpointTests {
+
+    private static final String CACHE_NAME = "foods";
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    private CoherentCacheManager cacheManager;
+    private CacheAdminEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(CACHE_NAME);
+        caffeineCacheManager.registerCustomCache(CACHE_NAME, Caffeine.newBuilder()
+                .maximumWeight(DataSize.ofMegabytes(16).toBytes())
+                .weigher((Object _, Object value) -> value.toString().length())
+                .expireAfterWrite(Duration.ofHours(1))
+                .recordStats()
+                .build());
+        cacheManager = new CoherentCacheManager(caffeineCacheManager, new CachePolicyProperties(),
+                cacheInvalidationRepository, TransactionOperations.withoutTransaction(), refreshExecutor,
+                new SimpleMeterRegistry(), false);
+        endpoint = new CacheAdminEndpoint(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Test
+    void tune_shouldResizeAndReexpireCaffeineCache() {
+        CacheAdminEndpoint.CacheDescriptor descriptor = endpoint.tune(SecurityContext.NONE, CACHE_NAME,
+                DataSize.ofMegabytes(1), Duration.ofMinutes(10), null, null);
+        Cache<?, ?> nativeCache = nativeCache();
+        Assertions.assertThat(nativeCache.policy().eviction().orElseThrow().getMaximum())
+                .isEqualTo(DataSize.ofMegabytes(1).toBytes());
+        Assertions.assertThat(nativeCache.policy().expireAfterWrite().orElseThrow().getExpiresAfter())
+                .isEqualTo(Duration.ofMinutes(10));
+        Assertions.assertThat(descriptor.ttl()).isEqualTo("PT10M");
+    }
+
+    @Test
+    void tune_shouldReject_whenSoftTtlNotShorterThanTtl() {
+        Assertions.assertThatThrownBy(() -> endpoint.tune(SecurityContext.NONE, CACHE_NAME, null,
+                        Duration.ofMinutes(10), Duration.ofMinutes(10), null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        Assertions.assertThat(cacheManager.getPolicy(CACHE_NAME).getTtl()).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void cache_shouldListHeaviestKeysFirst() {
+        cacheManager.getCache(CACHE_NAME).put(List.of(1L, 7L), "small");
+        cacheManager.getCache(CACHE_NAME).put(List.of(2L, 7L), "a much larger value");
+        CacheAdminEndpoint.CacheDetails details = endpoint.cache(CACHE_NAME, null);
+        Assertions.assertThat(details.heaviest()).extracting(CacheAdminEndpoint.KeyDescriptor::key)
+                .containsExactly("[2, 7]", "[1, 7]");
+        Assertions.assertThat(details.cache().size()).isEqualTo(2);
+    }
+
+    @Test
+    void evict_shouldEvictEntriesOfUser() {
+        cacheManager.getCache(CACHE_NAME).put(List.of(1L, 7L), "first");
+        cacheManager.getCache(CACHE_NAME).put(List.of(1L, 8L), "other user");
+        Assertions.assertThat(endpoint.evict(SecurityContext.NONE, CACHE_NAME, null, 7L).evicted()).isEqualTo(1);
+        Assertions.assertThat(endpoint.evict(SecurityContext.NONE, CACHE_NAME, "[1, 8]", null).evicted())
+                .isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> endpoint.evict(SecurityContext.NONE, CACHE_NAME, null, null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    private Cache<?, ?> nativeCache() {
+        return (Cache<?, ?>) cacheManager.getCache(CACHE_NAME).getNativeCache();
+    }
+
+}
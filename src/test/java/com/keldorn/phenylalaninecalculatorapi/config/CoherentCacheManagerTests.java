@@ -0,0 +1,250 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CoherentCacheManagerTests {
+
+    private static final String CACHE_NAME = "foodPages";
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachePolicyProperties cachePolicyProperties = new CachePolicyProperties();
+    private final CachePolicyProperties.Policy policy = new CachePolicyProperties.Policy();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void clear_shouldPublishInvalidation() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        cacheManager.getCache(CACHE_NAME).clear();
+        verify(cacheInvalidationRepository).append(CACHE_NAME, null, cacheManager.getNodeId());
+    }
+
+    @Test
+    void clear_shouldClearAgainAfterCommit_whenInTransaction() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        TransactionSynchronizationManager.initSynchronization();
+        cache.clear();
+        cache.put("key", "stale value");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Assertions.assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void evict_shouldPublishKey_whenKeyIsPortable() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        cacheManager.getCache(CACHE_NAME).evict(Arrays.asList(5L, null));
+        verify(cacheInvalidationRepository).append(CACHE_NAME, "[L5,N]", cacheManager.getNodeId());
+    }
+
+    @Test
+    void evict_shouldPublishWholeCache_whenKeyIsNotPortable() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        cacheManager.getCache(CACHE_NAME).evict(List.of(Duration.ZERO, 1L));
+        verify(cacheInvalidationRepository).append(CACHE_NAME, null, cacheManager.getNodeId());
+    }
+
+    @Test
+    void evictLocally_shouldEvictDecodedKeyOnly() {
+        CoherentCacheManager cacheManager = cacheManager(false);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        cache.put(5L, "evicted");
+        cache.put("5", "kept");
+        cacheManager.evictLocally(CACHE_NAME, "L5");
+        Assertions.assertThat(cache.get(5L)).isNull();
+        Assertions.assertThat(cache.get("5")).isNotNull();
+    }
+
+    @Test
+    void externalCache_shouldReceiveRemoteEvictionsAndPublishKeys() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        List<Object> evicted = new ArrayList<>();
+        cacheManager.registerExternalCache("external", evicted::add);
+
+        cacheManager.evictLocally("external", "L7");
+        cacheManager.clearLocally("external");
+        cacheManager.publishEviction("external", 7L);
+
+        Assertions.assertThat(evicted).containsExactly(7L, null);
+        verify(cacheInvalidationRepository).append("external", "L7", cacheManager.getNodeId());
+    }
+
+    @Test
+    void clear_shouldNotPublish_whenDisabled() {
+        cacheManager(false).getCache(CACHE_NAME).clear();
+        verifyNoInteractions(cacheInvalidationRepository);
+    }
+
+    @Test
+    void get_shouldRunLoaderOnce_whenConcurrentCallersLoadSameKey() throws Exception {
+        Cache cache = cacheManager(false).getCache(CACHE_NAME);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            release.await();
+            return "value";
+        };
+        CompletableFuture<String> first = new CompletableFuture<>();
+        Thread loading = Thread.ofPlatform().start(() -> first.complete(cache.get("key", loader)));
+        loaderStarted.await();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread waiting = Thread.ofPlatform().start(() -> second.complete(cache.get("key", loader)));
+        while (waiting.getState() != Thread.State.BLOCKED && waiting.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        loading.join();
+        waiting.join();
+        Assertions.assertThat(first.get()).isEqualTo("value");
+        Assertions.assertThat(second.get()).isEqualTo("value");
+        Assertions.assertThat(loads).hasValue(1);
+        Assertions.assertThat(meterRegistry.get("cache.coalesced.waits").tag("cache", CACHE_NAME).timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldNotKeepLoadedValue_whenCacheIsClearedDuringLoad() throws Exception {
+        cachePolicyProperties.getPolicies().put(CACHE_NAME, policy);
+        CoherentCacheManager cacheManager = new CoherentCacheManager(new CaffeineCacheManager(CACHE_NAME),
+                cachePolicyProperties, cacheInvalidationRepository, TransactionOperations.withoutTransaction(),
+                refreshExecutor, meterRegistry, false);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> loaded = new CompletableFuture<>();
+        Thread loading = Thread.ofPlatform().start(() -> loaded.complete(cache.get("key", () -> {
+            loaderStarted.countDown();
+            release.await();
+            return "stale";
+        })));
+        loaderStarted.await();
+        Thread clearing = Thread.ofPlatform().start(() -> cacheManager.clearLocally(CACHE_NAME));
+        clearing.join(Duration.ofSeconds(1));
+        release.countDown();
+        loading.join();
+        clearing.join();
+
+        Assertions.assertThat(loaded.get()).isEqualTo("stale");
+        Assertions.assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void get_shouldServeStaleAndReloadInBackground_whenPastSoftTtl() throws InterruptedException {
+        policy.setSoftTtl(Duration.ZERO);
+        Cache cache = cacheManager(false).getCache(CACHE_NAME);
+        UserContext.runAs(1L, () -> cache.get("key", () -> "old value"));
+        Assertions.assertThat(UserContext.runAs(1L, () -> cache.get("key", () -> "new value")))
+                .isEqualTo("old value");
+        refreshExecutor.shutdown();
+        Assertions.assertThat(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(cache.get("key").get()).isEqualTo("new value");
+    }
+
+    @Test
+    void get_shouldServeStale_whenReloadFailsOnDatabase() {
+        policy.setTtl(Duration.ZERO);
+        policy.setStaleIfError(Duration.ofHours(1));
+        Cache cache = cacheManager(false).getCache(CACHE_NAME);
+        cache.get("key", () -> "old value");
+        String value = cache.get("key", () -> {
+            throw new QueryTimeoutException("Database is down");
+        });
+        Assertions.assertThat(value).isEqualTo("old value");
+        Assertions.assertThat(meterRegistry.get("cache.stale.served").tag("reason", "error").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldRethrow_whenReloadFailsWithoutStaleIfError() {
+        policy.setTtl(Duration.ZERO);
+        Cache cache = cacheManager(false).getCache(CACHE_NAME);
+        cache.get("key", () -> "old value");
+        Assertions.assertThatThrownBy(() -> cache.get("key", () -> {
+                    throw new QueryTimeoutException("Database is down");
+                }))
+                .isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasCauseInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    void tune_shouldApplyNewTtlToLoadedEntries() {
+        CoherentCacheManager cacheManager = cacheManager(false);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        cache.put("key", "value");
+        CachePolicyProperties.Policy tuned = new CachePolicyProperties.Policy();
+        tuned.setTtl(Duration.ZERO);
+        cacheManager.tune(CACHE_NAME, tuned);
+        Assertions.assertThat(cache.get("key")).isNull();
+        Assertions.assertThat(cacheManager.getPolicy(CACHE_NAME)).isSameAs(tuned);
+        Assertions.assertThat(cachePolicyProperties.getPolicy(CACHE_NAME).getTtl()).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void evictIf_shouldEvictMatchingKeysAndPublishOnce() {
+        CoherentCacheManager cacheManager = cacheManager(true);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        cache.put(List.of(1L, 7L), "first");
+        cache.put(List.of(2L, 7L), "second");
+        cache.put(List.of(1L, 8L), "other user");
+        long generation = cacheManager.getGeneration(CACHE_NAME);
+        int evicted = cacheManager.evictIf(CACHE_NAME, key -> ((List<?>) key).getLast().equals(7L));
+        Assertions.assertThat(evicted).isEqualTo(2);
+        Assertions.assertThat(cache.get(List.of(1L, 8L))).isNotNull();
+        Assertions.assertThat(cacheManager.getGeneration(CACHE_NAME)).isGreaterThan(generation);
+        verify(cacheInvalidationRepository).append(CACHE_NAME, null, cacheManager.getNodeId());
+    }
+
+    private CoherentCacheManager cacheManager(boolean enabled) {
+        cachePolicyProperties.getPolicies().put(CACHE_NAME, policy);
+        return new CoherentCacheManager(new ConcurrentMapCacheManager(CACHE_NAME), cachePolicyProperties,
+                cacheInvalidationRepository, TransactionOperations.withoutTransaction(), refreshExecutor,
+                meterRegistry, enabled);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        routingDataSource = new ReplicaRoutingDataSource(lagMonitor, tracker);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, primary,
+                ReplicaRoutingDataSource.REPLICA, replica));
+        routingDataSource.afterPropertiesSet();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(RequestAttributes.CURRENT_USER_ID, 1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_shouldUseReplica_whenInSync() throws SQLException {
+        when(lagMonitor.isHealthy()).thenReturn(true);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenReplicaLags() throws SQLException {
+        when(lagMonitor.isHealthy()).thenReturn(false);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenUserWroteRecently() throws SQLException {
+        when(lagMonitor.isHealthy()).thenReturn(true);
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.isReadOnly()).thenReturn(false);
+        tracker.afterCommit(transaction, null);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.keldorn.phenylalaninecalculatorapi.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+import com.keldorn.phenylalaninecalculatorapi.service.FoodConsumptionService;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardResolver;
+import com.keldorn.phenylalaninecalculatorapi.service.UserService;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ShardRoutingDataSourceTests {
+
+    private static final String SHARD = "shard-1";
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource shard = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection shardConnection = mock(Connection.class);
+    private final ShardResolver shardResolver = mock(ShardResolver.class);
+
+    private ShardTransactionListener listener;
+    private ShardRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(shard.getConnection()).thenReturn(shardConnection);
+        when(shardResolver.shardFor(1L)).thenReturn(SHARD);
+        listener = new ShardTransactionListener(shardResolver);
+        routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(ShardingProperties.PRIMARY_SHARD, primary, SHARD, shard));
+        routingDataSource.afterPropertiesSet();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(RequestAttributes.CURRENT_USER_ID, 1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenNoTransaction() throws SQLException {
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_shouldUseUserShard_whenUserShardedTransaction() throws SQLException {
+        TransactionExecution transaction = transaction(FoodConsumptionService.class.getName() + ".save");
+        listener.beforeBegin(transaction);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(shardConnection);
+        listener.afterCommit(transaction, null);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_shouldRestoreOuterShard_whenNestedTransactionCompletes() throws SQLException {
+        TransactionExecution outer = transaction(FoodConsumptionService.class.getName() + ".save");
+        TransactionExecution inner = transaction(UserService.class.getName() + ".getCurrentUser");
+        listener.beforeBegin(outer);
+        listener.beforeBegin(inner);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        listener.afterRollback(inner, null);
+        Assertions.assertThat(routingDataSource.getConnection()).isSameAs(shardConnection);
+        listener.afterCommit(outer, null);
+    }
+
+    private static TransactionExecution transaction(String name) {
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.getTransactionName()).thenReturn(name);
+        return transaction;
+    }
+
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.constant.ResponseHeaders;
 import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodUpdateRequest;
@@ -12,9 +13,12 @@ import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.page.PageResponse;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+import com.keldorn.phenylalaninecalculatorapi.exception.QueryCostExceededException;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
 import com.keldorn.phenylalaninecalculatorapi.service.FoodService;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
+import com.keldorn.phenylalaninecalculatorapi.service.QueryCostService;
 
 import java.util.List;
 
@@ -24,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.data.domain.Page;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.client.RestTestClient;
@@ -35,6 +40,12 @@ class FoodControllerTests {
     @MockitoBean
     private FoodService foodService;
 
+    @MockitoBean
+    private QueryCostService queryCostService;
+
+    @MockitoBean
+    private HotKeyService hotKeyService;
+
     @Autowired
     private RestTestClient restTestClient;
 
@@ -88,6 +99,40 @@ class FoodControllerTests {
         doAssertionsChecksOnResponse(response.getContent().getFirst(), pageResponse.getContent().getFirst());
     }
 
+    @Test
+    void getAll_shouldReturnQueryCostHeaders_whenExplainIsRequested() {
+        when(foodService.findAll(any(QueryRequest.class), any(PaginationRequest.class)))
+                .thenReturn(new PagedFoodResponse(List.of(), new PageResponse()));
+        when(queryCostService.estimateFoodQuery(any(QueryRequest.class))).thenReturn(42);
+        when(queryCostService.getBudget()).thenReturn(100);
+        restTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(ApiRoutes.FOOD_PATH).queryParam("explain", true).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseHeaders.QUERY_COST, "42")
+                .expectHeader().valueEquals(ResponseHeaders.QUERY_COST_BUDGET, "100");
+    }
+
+    @Test
+    void getAll_shouldReturn400_whenQueryCostExceeded() {
+        when(foodService.findAll(any(QueryRequest.class), any(PaginationRequest.class)))
+                .thenThrow(QueryCostExceededException.class);
+        restTestClient.get()
+                .uri(ApiRoutes.FOOD_PATH)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAll_shouldReturn503_whenQueryTimesOut() {
+        when(foodService.findAll(any(QueryRequest.class), any(PaginationRequest.class)))
+                .thenThrow(QueryTimeoutException.class);
+        restTestClient.get()
+                .uri(ApiRoutes.FOOD_PATH)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
     @Test
     void postFood_shouldReturn201() {
         FoodRequest request = new FoodRequest(
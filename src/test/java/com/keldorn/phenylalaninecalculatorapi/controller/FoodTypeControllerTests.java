@@ -13,6 +13,7 @@ import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
 import com.keldorn.phenylalaninecalculatorapi.service.FoodTypeService;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
 
 import java.util.List;
 
@@ -31,6 +32,9 @@ class FoodTypeControllerTests {
     @MockitoBean
     private FoodTypeService foodTypeService;
 
+    @MockitoBean
+    private HotKeyService hotKeyService;
+
     @Autowired
     private RestTestClient restTestClient;
 
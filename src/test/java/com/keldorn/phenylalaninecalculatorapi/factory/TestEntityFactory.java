@@ -84,6 +84,8 @@ public class TestEntityFactory {
         return FoodConsumption.builder()
                 .user(user)
                 .food(food)
+                .foodName(food.getName())
+                .foodPhenylalanine(food.getPhenylalanine())
                 .amount(DEFAULT_BIG_DECIMAL_VALUE)
                 .phenylalanineAmount(DEFAULT_BIG_DECIMAL_VALUE)
                 .consumedAt(consumedAt)
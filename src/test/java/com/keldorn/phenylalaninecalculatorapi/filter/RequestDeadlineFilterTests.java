@@ -0,0 +1,72 @@
+package com.keldorn.phenylalaninecalculatorapi.filter;
+
+import com.keldorn.phenylalaninecalculatorapi.config.RequestDeadlineProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidRequestDeadlineException;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+class RequestDeadlineFilterTests {
+
+    private RequestDeadlineProperties properties;
+    private HandlerExceptionResolver resolver;
+    private RequestDeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestDeadlineProperties();
+        properties.getEndpoints().put(ApiRoutes.FOOD_PATH + "/**", Duration.ofSeconds(2));
+        resolver = Mockito.mock(HandlerExceptionResolver.class);
+        filter = new RequestDeadlineFilter(properties, resolver);
+    }
+
+    @Test
+    void resolveBudget_shouldUseEndpointBudget_whenPathMatches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH + "/1");
+        Assertions.assertThat(filter.resolveBudget(request)).isEqualTo(Duration.ofSeconds(2));
+        request.setRequestURI(ApiRoutes.DAILY_INTAKE_PATH);
+        Assertions.assertThat(filter.resolveBudget(request)).isEqualTo(properties.getDefaultBudget());
+    }
+
+    @Test
+    void resolveBudget_shouldCapHeaderOverride_atMaxBudget() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH);
+        request.addHeader(properties.getHeader(), "500");
+        Assertions.assertThat(filter.resolveBudget(request)).isEqualTo(Duration.ofMillis(500));
+        request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH);
+        request.addHeader(properties.getHeader(), String.valueOf(Duration.ofHours(1).toMillis()));
+        Assertions.assertThat(filter.resolveBudget(request)).isEqualTo(properties.getMaxBudget());
+    }
+
+    @Test
+    void resolveBudget_shouldReject_whenHeaderIsNotPositive() {
+        for (String header : new String[]{"0", "-500", "soon"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH);
+            request.addHeader(properties.getHeader(), header);
+            Assertions.assertThatThrownBy(() -> filter.resolveBudget(request))
+                    .isInstanceOf(InvalidRequestDeadlineException.class);
+        }
+    }
+
+    @Test
+    void doFilter_shouldResolveErrorAndStopChain_whenHeaderIsNotPositive() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH);
+        request.addHeader(properties.getHeader(), "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        Mockito.verify(resolver).resolveException(Mockito.eq(request), Mockito.eq(response), Mockito.isNull(),
+                Mockito.any(InvalidRequestDeadlineException.class));
+        Assertions.assertThat(chain.getRequest()).isNull();
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.keldorn.phenylalaninecalculatorapi.filter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CachePolicyProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.ResponseCacheProperties;
+import com.keldorn.phenylalaninecalculatorapi.constant.ApiRoutes;
+import com.keldorn.phenylalaninecalculatorapi.constant.RequestAttributes;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository.HotKey;
+import com.keldorn.phenylalaninecalculatorapi.service.HotKeyService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheFilterTests {
+
+    private static final String CACHE_NAME = "foodPages";
+    private static final String BODY = "{\"content\":[],\"page\":{\"size\":0}}";
+    private static final HotKey HOT_KEY = HotKey.page(CACHE_NAME, 1L, null, "name,desc", 0, 20);
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Mock
+    private HotKeyService hotKeyService;
+
+    private ResponseCacheProperties properties;
+    private CoherentCacheManager cacheManager;
+    private AtomicInteger renders;
+    private FilterChain chain;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        properties.getEndpoints().put(ApiRoutes.FOOD_PATH, CACHE_NAME);
+        cacheManager = new CoherentCacheManager(new ConcurrentMapCacheManager(CACHE_NAME),
+                new CachePolicyProperties(), cacheInvalidationRepository, TransactionOperations.withoutTransaction(),
+                Executors.newSingleThreadExecutor(), new SimpleMeterRegistry(), false);
+        renders = new AtomicInteger();
+        chain = (request, response) -> {
+            renders.incrementAndGet();
+            request.setAttribute(RequestAttributes.HOT_KEY, HOT_KEY);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+        filter = new ResponseCacheFilter(properties, cacheManager, hotKeyService, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void doFilter_shouldServeRepeatedRequestFromCache() throws ServletException, IOException {
+        MockHttpServletResponse first = execute(request());
+        MockHttpServletResponse second = execute(request());
+        Assertions.assertThat(renders).hasValue(1);
+        Assertions.assertThat(second.getContentAsString()).isEqualTo(BODY);
+        Assertions.assertThat(second.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        Assertions.assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG))
+                .startsWith("W/");
+        verify(hotKeyService).recordHit(HOT_KEY);
+    }
+
+    @Test
+    void doFilter_shouldRenderAgain_whenSourceCacheEvicted() throws ServletException, IOException {
+        execute(request());
+        cacheManager.getCache(CACHE_NAME).clear();
+        execute(request());
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void doFilter_shouldCacheEachUserSeparately() throws ServletException, IOException {
+        execute(request());
+        MockHttpServletRequest other = request();
+        other.setAttribute(RequestAttributes.CURRENT_USER_ID, 2L);
+        execute(other);
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void doFilter_shouldReturnNotModified_whenEtagMatches() throws ServletException, IOException {
+        String etag = execute(request()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = execute(request);
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void doFilter_shouldServeGzippedBody_whenAccepted() throws ServletException, IOException {
+        properties.setGzipMinSize(DataSize.ofBytes(0));
+        execute(request());
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = execute(request);
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            Assertions.assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    void doFilter_shouldPassThrough_whenEndpointNotCached() throws ServletException, IOException {
+        MockHttpServletRequest request = request();
+        request.setRequestURI(ApiRoutes.FOOD_TYPE_PATH);
+        execute(request);
+        request = request();
+        request.setRequestURI(ApiRoutes.FOOD_TYPE_PATH);
+        execute(request);
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void doFilter_shouldRenderEveryTime_whenWarmUpReplay() throws ServletException, IOException {
+        when(hotKeyService.isReplay(any())).thenReturn(true);
+        execute(request());
+        execute(request());
+        Assertions.assertThat(renders).hasValue(2);
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.FOOD_PATH);
+        request.setQueryString("page=0&size=20");
+        request.setAttribute(RequestAttributes.CURRENT_USER_ID, 1L);
+        return request;
+    }
+
+}
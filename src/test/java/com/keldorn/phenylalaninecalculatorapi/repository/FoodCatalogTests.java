@@ -0,0 +1,78 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FoodCatalogTests {
+
+    private static final long OWNER_ID = 7L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findById_shouldReadRecordsBack() throws IOException {
+        FoodCatalog catalog = catalog();
+        FoodResponse response = catalog.findById(20, OWNER_ID).orElseThrow();
+        Assertions.assertThat(response.name()).isEqualTo("Érable");
+        Assertions.assertThat(response.protein()).isEqualTo(new BigDecimal("1.25"));
+        Assertions.assertThat(response.calories()).isEqualTo(new BigDecimal("10.00"));
+        Assertions.assertThat(response.phenylalanine()).isNull();
+        Assertions.assertThat(response.foodTypeName()).isEqualTo("fruit");
+        Assertions.assertThat(response.multiplier()).isEqualTo(50);
+        Assertions.assertThat(response.canEdit()).isTrue();
+        Assertions.assertThat(catalog.findById(10, OWNER_ID).orElseThrow().canEdit()).isFalse();
+        Assertions.assertThat(catalog.findById(15, OWNER_ID)).isEmpty();
+    }
+
+    @Test
+    void findPage_shouldFollowNameOrder() throws IOException {
+        FoodCatalog catalog = catalog();
+        PagedFoodResponse ascending = catalog.findPage(false, 0, 2, OWNER_ID);
+        Assertions.assertThat(ascending.getContent()).extracting(FoodResponse::name)
+                .containsExactly("Apple", "Banana");
+        Assertions.assertThat(ascending.getPage().getTotalElements()).isEqualTo(3);
+        Assertions.assertThat(ascending.getPage().getTotalPages()).isEqualTo(2);
+        Assertions.assertThat(catalog.findPage(true, 0, 2, OWNER_ID).getContent()).extracting(FoodResponse::name)
+                .containsExactly("Érable", "Banana");
+        Assertions.assertThat(catalog.findPage(false, 1, 2, OWNER_ID).getContent()).extracting(FoodResponse::name)
+                .containsExactly("Érable");
+        Assertions.assertThat(catalog.findPage(false, 5, 2, OWNER_ID).getContent()).isEmpty();
+    }
+
+    @Test
+    void finish_shouldFail_whenCatalogIncomplete() throws IOException {
+        FoodCatalog.Writer writer = FoodCatalog.create(directory.resolve("incomplete.bin"), 2, 16);
+        writer.addFood(1, null, null, "Apple", BigDecimal.ONE, BigDecimal.ONE, null, null, null);
+        Assertions.assertThatThrownBy(() -> writer.finish(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private FoodCatalog catalog() throws IOException {
+        String[] names = {"Banana", "Apple", "Érable"};
+        long stringBytes = "fruit".length();
+        for (String name : names) {
+            stringBytes += name.getBytes(StandardCharsets.UTF_8).length;
+        }
+        FoodCatalog.Writer writer = FoodCatalog.create(directory.resolve("catalog.bin"), names.length, stringBytes);
+        writer.addFood(10, 1L, 3L, names[0], new BigDecimal("2.00"), new BigDecimal("90.00"),
+                new BigDecimal("100.00"), "fruit", 50);
+        writer.addFood(11, null, 3L, names[1], new BigDecimal("0.30"), new BigDecimal("52.00"),
+                new BigDecimal("15.00"), "fruit", 50);
+        writer.addFood(20, OWNER_ID, 3L, names[2], new BigDecimal("1.25"), new BigDecimal("10.00"), null,
+                "fruit", 50);
+        writer.addNameOrder(11);
+        writer.addNameOrder(10);
+        writer.addNameOrder(20);
+        return writer.finish(1);
+    }
+
+}
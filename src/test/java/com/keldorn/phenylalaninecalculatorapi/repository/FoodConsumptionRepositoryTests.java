@@ -8,17 +8,26 @@ import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodType;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
 
 @RepositoryCleanUp
 @MySQLRepositoryTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class FoodConsumptionRepositoryTests {
 
     @Autowired
@@ -33,13 +42,17 @@ class FoodConsumptionRepositoryTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User user;
+    private Food food;
 
     @BeforeEach
     void setUp() {
         user = userRepository.save(TestEntityFactory.user());
         FoodType foodType = foodTypeRepository.save(TestEntityFactory.foodType());
-        Food food = foodRepository.save(TestEntityFactory.food(foodType));
+        food = foodRepository.save(TestEntityFactory.food(foodType));
         foodConsumptionRepository.save(TestEntityFactory.foodConsumption(user, food, TestEntityFactory.CONSUMED_AT));
     }
 
@@ -75,4 +88,68 @@ class FoodConsumptionRepositoryTests {
         Assertions.assertThat(foodConsumptionResult).isEmpty();
     }
 
+    @Test
+    void findAllByUserAndConsumedAtBetween_shouldResolveFood_whenFoodIsTombstoned() {
+        foodRepository.delete(food);
+        entityManager.flush();
+        Assertions.assertThat(foodRepository.copyDeletedToTombstone(Instant.now())).isEqualTo(1);
+        Assertions.assertThat(foodRepository.deleteTombstoned()).isEqualTo(1);
+        entityManager.clear();
+        List<FoodConsumption> foodConsumptionResult = foodConsumptionRepository
+                .findAllByUserAndConsumedAtBetween(user.getUserId(),
+                        TestEntityFactory.START, TestEntityFactory.END, PageRequest.of(0, 20)).getContent();
+        Assertions.assertThat(foodConsumptionResult)
+                .hasSize(1)
+                .extracting(FoodConsumption::getFoodName)
+                .containsExactly(TestEntityFactory.DEFAULT_FOOD_NAME);
+    }
+
+    @Test
+    void copyDeletedToTombstone_shouldKeepFood_whenArchivedConsumptionIsRecent() {
+        foodRepository.delete(food);
+        entityManager.flush();
+        copyToArchive(1_000);
+        entityManager.createNativeQuery("DELETE FROM food_consumption").executeUpdate();
+        Assertions.assertThat(foodRepository.copyDeletedToTombstone(TestEntityFactory.START)).isZero();
+        Assertions.assertThat(foodRepository.deleteTombstoned()).isZero();
+    }
+
+    @Test
+    void findAllWithArchivedByUserAndConsumedAtBetween_shouldReadEachConsumptionOnce() {
+        entityManager.flush();
+        copyToArchive(0);
+        copyToArchive(1_000);
+        entityManager.clear();
+        Page<FoodConsumption> result = foodConsumptionRepository.findAllWithArchivedByUserAndConsumedAtBetween(
+                user.getUserId(), TestEntityFactory.START, TestEntityFactory.END, PageRequest.of(0, 20));
+        Assertions.assertThat(result.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(result.getContent())
+                .extracting(FoodConsumption::getFoodName)
+                .containsExactly(TestEntityFactory.DEFAULT_FOOD_NAME, TestEntityFactory.DEFAULT_FOOD_NAME);
+    }
+
+    @Test
+    void saveAll_shouldBatchInserts() {
+        int rows = 200;
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<FoodConsumption> foodConsumptions = IntStream.range(0, rows)
+                .mapToObj(_ -> TestEntityFactory.foodConsumption(user, food, TestEntityFactory.CONSUMED_AT))
+                .toList();
+        foodConsumptionRepository.saveAll(foodConsumptions);
+        entityManager.flush();
+        Assertions.assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThan(rows / 10);
+    }
+
+    private void copyToArchive(long idOffset) {
+        entityManager.createNativeQuery("INSERT INTO food_consumption_archive (food_consumption_id, amount, "
+                        + "phenylalanine_amount, consumed_at, food_id, food_name, food_phenylalanine, user_id) "
+                        + "SELECT food_consumption_id + ?1, amount, phenylalanine_amount, consumed_at, food_id, "
+                        + "food_name, food_phenylalanine, user_id FROM food_consumption")
+                .setParameter(1, idOffset)
+                .executeUpdate();
+    }
+
 }
@@ -0,0 +1,176 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import com.keldorn.phenylalaninecalculatorapi.annotation.MySQLRepositoryTest;
+import com.keldorn.phenylalaninecalculatorapi.annotation.RepositoryCleanUp;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.Food;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodType;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
+import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.mapper.FoodMapper;
+import com.keldorn.phenylalaninecalculatorapi.utils.FoodQueryParamsUtil;
+import com.keldorn.phenylalaninecalculatorapi.utils.SqlStatementCollector;
+
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.perplexhub.rsql.RSQLJPASupport;
+
+@RepositoryCleanUp
+@MySQLRepositoryTest
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.keldorn.phenylalaninecalculatorapi.utils.SqlStatementCollector"})
+class FoodRepositoryTests {
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private FoodTypeRepository foodTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+    private Food food;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestEntityFactory.user());
+        for (int i = 0; i < 3; i++) {
+            FoodType foodType = TestEntityFactory.foodType();
+            foodType.setUser(user);
+            foodType = foodTypeRepository.save(foodType);
+            Food entity = TestEntityFactory.food(foodType);
+            entity.setUser(user);
+            food = foodRepository.save(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_shouldFetchFoodTypesWithoutOwners() {
+        List<Food> foods = foodRepository.findAll(FoodQueryParamsUtil.createQuerySpecification(new QueryRequest()),
+                PageRequest.of(0, 20)).getContent();
+        Assertions.assertThat(foods).hasSize(3);
+        Assertions.assertThat(foods).allSatisfy(f -> {
+            Assertions.assertThat(Hibernate.isInitialized(f.getFoodType())).isTrue();
+            Assertions.assertThat(Hibernate.isInitialized(f.getFoodType().getUser())).isFalse();
+            Assertions.assertThat(Hibernate.isInitialized(f.getUser())).isFalse();
+        });
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll_shouldMapResponsesWithoutAdditionalStatements() {
+        var response = FoodMapper.INSTANCE.toModel(foodRepository.findAll(
+                FoodQueryParamsUtil.createQuerySpecification(new QueryRequest()), PageRequest.of(0, 20)),
+                user.getUserId());
+        Assertions.assertThat(response.getContent()).hasSize(3).allMatch(f -> f.canEdit());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findById_shouldIssueSingleStatement() {
+        Food result = foodRepository.findById(food.getId()).orElseThrow();
+        Assertions.assertThat(result.getFoodType().getName()).isEqualTo(TestEntityFactory.DEFAULT_FOOD_TYPE_NAME);
+        Assertions.assertThat(Hibernate.isInitialized(result.getFoodType().getUser())).isFalse();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findNutrientsById_shouldReadNutrientsOnly() {
+        FoodRepository.FoodNutrients nutrients = foodRepository.findNutrientsById(food.getId()).orElseThrow();
+        Assertions.assertThat(nutrients.phenylalanine()).isEqualByComparingTo(food.getPhenylalanine());
+        Assertions.assertThat(nutrients.name()).isEqualTo(TestEntityFactory.DEFAULT_FOOD_NAME);
+        Assertions.assertThat(nutrients.deleted()).isFalse();
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getReferenceById_shouldLinkConsumptionWithoutSelectingFood() {
+        SqlStatementCollector.clear();
+        entityManager.persist(TestEntityFactory.foodConsumption(userRepository.getReferenceById(user.getUserId()),
+                foodRepository.getReferenceById(food.getId()), Instant.now()));
+        entityManager.flush();
+        Assertions.assertThat(SqlStatementCollector.selects("food")).isEmpty();
+    }
+
+    @Test
+    void update_shouldOnlyWriteChangedColumns() {
+        Food result = foodRepository.findById(food.getId()).orElseThrow();
+        SqlStatementCollector.clear();
+        result.setName("updated name");
+        entityManager.flush();
+        List<String> updates = SqlStatementCollector.updates("food");
+        Assertions.assertThat(updates).hasSize(1);
+        Assertions.assertThat(updates.getFirst())
+                .contains("name")
+                .doesNotContain("protein", "calories", "phenylalanine", "food_type_id");
+    }
+
+    @Test
+    void findAll_shouldUseNormalizedColumn_whenPrefixSearch() {
+        Food result = foodRepository.findById(food.getId()).orElseThrow();
+        result.setName("Érable Syrup");
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCollector.clear();
+        QueryRequest queryRequest = QueryRequest.builder().query("name=='ERABLE*'").build();
+        List<Food> foods = foodRepository.findAll(FoodQueryParamsUtil.createQuerySpecification(queryRequest),
+                PageRequest.of(0, 20)).getContent();
+        Assertions.assertThat(foods).extracting(Food::getId).containsExactly(food.getId());
+        Assertions.assertThat(SqlStatementCollector.selects("food"))
+                .anySatisfy(sql -> Assertions.assertThat(sql).contains("name_normalized like"));
+    }
+
+    @Test
+    void findAll_shouldMatchOriginalQuery_whenSearchTermIsMidString() {
+        Food result = foodRepository.findById(food.getId()).orElseThrow();
+        result.setName("Green Apple");
+        entityManager.flush();
+        entityManager.clear();
+        List.of("name=ilike='app*'", "name=ilike='APP'", "name=='app*'", "name=='gre*'").forEach(query -> {
+            List<Long> original = foodRepository.findAll(RSQLJPASupport.<Food>toSpecification(query)).stream()
+                    .map(Food::getId)
+                    .toList();
+            List<Long> rewritten = foodRepository.findAll(FoodQueryParamsUtil.createQuerySpecification(
+                            QueryRequest.builder().query(query).build()), PageRequest.of(0, 20)).stream()
+                    .map(Food::getId)
+                    .toList();
+            Assertions.assertThat(rewritten).as(query).containsExactlyInAnyOrderElementsOf(original);
+        });
+        Assertions.assertThat(foodRepository.findAll(FoodQueryParamsUtil.createQuerySpecification(
+                QueryRequest.builder().query("name=='gre*'").build()))).extracting(Food::getId)
+                .containsExactly(food.getId());
+    }
+
+    @Test
+    void findAll_shouldReuseQueryPlan_whenOnlyLiteralsDiffer() {
+        List.of("protein=lt=2;calories=gt=1", "calories=gt=5;protein=lt=7").forEach(query ->
+                foodRepository.findAll(FoodQueryParamsUtil.createQuerySpecification(
+                        QueryRequest.builder().query(query).build()), PageRequest.of(0, 20)));
+        Assertions.assertThat(statistics.getQueryPlanCacheHitCount()).isPositive();
+    }
+
+}
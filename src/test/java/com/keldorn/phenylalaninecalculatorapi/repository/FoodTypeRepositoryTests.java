@@ -0,0 +1,81 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import com.keldorn.phenylalaninecalculatorapi.annotation.MySQLRepositoryTest;
+import com.keldorn.phenylalaninecalculatorapi.annotation.RepositoryCleanUp;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodType;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
+import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.mapper.FoodTypeMapper;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+@RepositoryCleanUp
+@MySQLRepositoryTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FoodTypeRepositoryTests {
+
+    @Autowired
+    private FoodTypeRepository foodTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+    private FoodType foodType;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestEntityFactory.user());
+        for (int i = 0; i < 5; i++) {
+            FoodType entity = TestEntityFactory.foodType();
+            entity.setUser(user);
+            foodType = foodTypeRepository.save(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_shouldIssueSingleStatement_andNotLoadOwners() {
+        List<FoodType> foodTypes = foodTypeRepository.findAll(PageRequest.of(0, 20)).getContent();
+        Assertions.assertThat(foodTypes).hasSize(5);
+        Assertions.assertThat(foodTypes)
+                .allSatisfy(ft -> Assertions.assertThat(Hibernate.isInitialized(ft.getUser())).isFalse());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll_shouldResolveCanEditFromForeignKeyOnly() {
+        var response = FoodTypeMapper.INSTANCE.toModel(foodTypeRepository.findAll(PageRequest.of(0, 20)),
+                user.getUserId());
+        Assertions.assertThat(response.getContent()).allMatch(ft -> ft.canEdit());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findById_shouldIssueSingleStatement_andNotLoadOwner() {
+        FoodType result = foodTypeRepository.findById(foodType.getId()).orElseThrow();
+        Assertions.assertThat(Hibernate.isInitialized(result.getUser())).isFalse();
+        Assertions.assertThat(result.getUser().getUserId()).isEqualTo(user.getUserId());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.keldorn.phenylalaninecalculatorapi.repository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.config.RecentConsumptionProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodConsumption;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.FoodConsumptionResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodconsumption.PagedFoodConsumptionResponse;
+import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.service.ShardTransactions;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RecentConsumptionStoreTests {
+
+    private static final Long USER_ID = 7L;
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @Mock
+    private FoodConsumptionRepository foodConsumptionRepository;
+
+    @Mock
+    private CoherentCacheManager cacheManager;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Object>> evictLocally;
+
+    private RecentConsumptionProperties properties;
+    private RecentConsumptionStore store;
+    private Instant todayStart;
+    private Instant tomorrowStart;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RecentConsumptionProperties();
+        store = new RecentConsumptionStore(properties, foodConsumptionRepository, cacheManager,
+                new ShardTransactions(null, new ShardingProperties()), new SimpleMeterRegistry());
+        verify(cacheManager).registerExternalCache(eq(RecentConsumptionStore.CACHE_NAME), evictLocally.capture());
+        LocalDate today = LocalDate.now(ZONE);
+        todayStart = today.atStartOfDay(ZONE).toInstant();
+        tomorrowStart = today.plusDays(1).atStartOfDay(ZONE).toInstant();
+    }
+
+    @Test
+    void findPage_shouldServeRepeatedReadsFromMemory() {
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(consumption(1L, todayStart.plusSeconds(60)),
+                        consumption(2L, todayStart.plusSeconds(120))));
+
+        PagedFoodConsumptionResponse first = findToday(0, 1);
+        PagedFoodConsumptionResponse second = findToday(1, 1);
+
+        Assertions.assertThat(first.getContent()).extracting(FoodConsumptionResponse::id).containsExactly(1L);
+        Assertions.assertThat(second.getContent()).extracting(FoodConsumptionResponse::id).containsExactly(2L);
+        Assertions.assertThat(second.getPage().getTotalElements()).isEqualTo(2);
+        verify(foodConsumptionRepository, times(1)).findRecentByUser(any(), any(), any());
+    }
+
+    @Test
+    void putAndRemove_shouldUpdateKeptConsumptions() {
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(consumption(1L, todayStart.plusSeconds(120))));
+        findToday(0, 20);
+
+        FoodConsumption apple = consumption(2L, todayStart.plusSeconds(60));
+        apple.setFoodName("apple");
+        store.putAfterCommit(USER_ID, apple);
+        store.putAfterCommit(USER_ID, apple);
+        Assertions.assertThat(findToday(0, 20).getContent()).extracting(FoodConsumptionResponse::id)
+                .containsExactly(2L, 1L);
+
+        store.removeAfterCommit(USER_ID, 1L);
+        Assertions.assertThat(findToday(0, 20).getContent()).extracting(FoodConsumptionResponse::foodName)
+                .containsExactly("apple");
+        verify(cacheManager, times(3)).publishEviction(RecentConsumptionStore.CACHE_NAME, USER_ID);
+    }
+
+    @Test
+    void evictLocally_shouldReloadUser_whenAnotherNodeWrote() {
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(consumption(1L, todayStart.plusSeconds(60))));
+        findToday(0, 20);
+
+        evictLocally.getValue().accept(USER_ID);
+        findToday(0, 20);
+
+        verify(foodConsumptionRepository, times(2)).findRecentByUser(any(), any(), any());
+    }
+
+    @Test
+    void findPage_shouldNotKeepLoad_whenUserIsWrittenDuringIt() {
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenAnswer(_ -> {
+                    store.removeAfterCommit(USER_ID, 1L);
+                    return List.of(consumption(1L, todayStart.plusSeconds(60)));
+                })
+                .thenReturn(List.of());
+
+        Assertions.assertThat(findToday(0, 20).getContent()).hasSize(1);
+        Assertions.assertThat(findToday(0, 20).getContent()).isEmpty();
+        verify(foodConsumptionRepository, times(2)).findRecentByUser(any(), any(), any());
+    }
+
+    @Test
+    void findPage_shouldLoadInReadWriteTransaction_whenCalledFromReadOnlyTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        when(transactionManager.getTransaction(definition.capture())).thenReturn(mock(TransactionStatus.class));
+        store = new RecentConsumptionStore(properties, foodConsumptionRepository, cacheManager,
+                new ShardTransactions(transactionManager, new ShardingProperties()), new SimpleMeterRegistry());
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(consumption(1L, todayStart.plusSeconds(60))));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            Assertions.assertThat(findToday(0, 20).getContent()).hasSize(1);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        Assertions.assertThat(definition.getValue().isReadOnly()).isFalse();
+        Assertions.assertThat(definition.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void findPage_shouldBeEmpty_whenUserHasTooManyConsumptions() {
+        properties.setMaximumEntriesPerUser(1);
+        when(foodConsumptionRepository.findRecentByUser(eq(USER_ID), any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(consumption(1L, todayStart), consumption(2L, todayStart.plusSeconds(1))));
+
+        Assertions.assertThat(store.findPage(USER_ID, todayStart, tomorrowStart, ZONE, PageRequest.of(0, 20)))
+                .isEmpty();
+    }
+
+    @Test
+    void findPage_shouldBeEmpty_whenRangeStartsBeforeYesterday() {
+        Instant start = todayStart.minusSeconds(2 * 24 * 60 * 60);
+
+        Assertions.assertThat(store.findPage(USER_ID, start, todayStart, ZONE, PageRequest.of(0, 20))).isEmpty();
+        verifyNoInteractions(foodConsumptionRepository);
+    }
+
+    private PagedFoodConsumptionResponse findToday(int page, int size) {
+        return store.findPage(USER_ID, todayStart, tomorrowStart, ZONE, PageRequest.of(page, size)).orElseThrow();
+    }
+
+    private static FoodConsumption consumption(Long id, Instant consumedAt) {
+        FoodConsumption consumption = TestEntityFactory.foodConsumption(TestEntityFactory.user(),
+                TestEntityFactory.food(TestEntityFactory.foodType()), consumedAt);
+        consumption.setId(id);
+        return consumption;
+    }
+
+}
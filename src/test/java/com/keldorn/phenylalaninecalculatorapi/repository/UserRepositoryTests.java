@@ -4,22 +4,35 @@ import com.keldorn.phenylalaninecalculatorapi.annotation.MySQLRepositoryTest;
 import com.keldorn.phenylalaninecalculatorapi.annotation.RepositoryCleanUp;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.utils.SqlStatementCollector;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.EntityManager;
+
 import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
 
 @RepositoryCleanUp
 @MySQLRepositoryTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.keldorn.phenylalaninecalculatorapi.utils.SqlStatementCollector")
 class UserRepositoryTests {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private final String nonExistentValue = " non-existent";
 
     @BeforeEach
@@ -50,6 +63,15 @@ class UserRepositoryTests {
         Assertions.assertThat(user.get().getUsername()).isEqualTo(TestEntityFactory.DEFAULT_USERNAME);
     }
 
+    @Test
+    void findByUsername_shouldFetchRoles() {
+        entityManager.flush();
+        entityManager.clear();
+        Optional<User> user = userRepository.findByUsername(TestEntityFactory.DEFAULT_USERNAME);
+        Assertions.assertThat(user).isPresent();
+        Assertions.assertThat(Hibernate.isInitialized(user.get().getRoles())).isTrue();
+    }
+
     @Test
     void findByUsername_shouldReturnEmptyOptional() {
         Optional<User> user = userRepository.findByUsername(nonExistentValue);
@@ -80,4 +102,29 @@ class UserRepositoryTests {
         Assertions.assertThat(response).isFalse();
     }
 
+    @Test
+    void findByUsername_shouldLoadPasswordWithUser() {
+        entityManager.flush();
+        entityManager.clear();
+        User user = userRepository.findByUsername(TestEntityFactory.DEFAULT_USERNAME).orElseThrow();
+        Assertions.assertThat(user).isInstanceOf(PersistentAttributeInterceptable.class);
+        Assertions.assertThat(Hibernate.isPropertyInitialized(user, "password")).isTrue();
+        Assertions.assertThat(user.getPassword()).isEqualTo(TestEntityFactory.DEFAULT_PASSWORD);
+    }
+
+    @Test
+    void update_shouldOnlyWriteChangedColumns() {
+        entityManager.flush();
+        entityManager.clear();
+        User user = userRepository.findByUsername(TestEntityFactory.DEFAULT_USERNAME).orElseThrow();
+        SqlStatementCollector.clear();
+        user.setDailyLimit(BigDecimal.ONE);
+        entityManager.flush();
+        List<String> updates = SqlStatementCollector.updates("users");
+        Assertions.assertThat(updates).hasSize(1);
+        Assertions.assertThat(updates.getFirst())
+                .contains("daily_limit")
+                .doesNotContain("password", "email", "username");
+    }
+
 }
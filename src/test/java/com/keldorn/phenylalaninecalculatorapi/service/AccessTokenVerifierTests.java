@@ -0,0 +1,114 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import com.keldorn.phenylalaninecalculatorapi.config.JwtProperties;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
+import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import javax.crypto.SecretKey;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AccessTokenVerifierTests {
+
+    private static final String SECRET =
+            "VGhpc0lzQVNlY3JldEtleUZvclRlc3RpbmdUaGF0SXNMb25nRW5vdWdoMTIzNDU2";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+    private final AccessTokenVerifier verifier = new AccessTokenVerifier(KEY);
+    private final User user = User.builder()
+            .userId(42L)
+            .username("Zoé")
+            .roles(List.of(TestEntityFactory.role()))
+            .build();
+
+    @Test
+    void verify_shouldReadSameClaimsAsJwtParser() {
+        JwtService jwtService = jwtService(Duration.ofMinutes(5));
+        String token = jwtService.generateAccessToken(user);
+        Claims claims = jwtService.validateAndParseAccessToken(token);
+
+        JwtService.AccessPrincipal principal = verifier.verify(token);
+
+        Assertions.assertThat(principal).isNotNull();
+        Assertions.assertThat(principal.userId()).isEqualTo(jwtService.extractUserId(claims));
+        Assertions.assertThat(principal.username()).isEqualTo("Zoé");
+        Assertions.assertThat(principal.authorities()).extracting(Object::toString)
+                .containsExactlyElementsOf(jwtService.extractRoles(claims));
+        Assertions.assertThat(principal.expiresAt()).isEqualTo(claims.getExpiration().toInstant());
+    }
+
+    @Test
+    void verify_shouldShareAuthorities_whenRolesAreEqual() {
+        JwtService jwtService = jwtService(Duration.ofMinutes(5));
+        User other = User.builder().userId(43L).username("other").roles(List.of(TestEntityFactory.role())).build();
+
+        JwtService.AccessPrincipal first = verifier.verify(jwtService.generateAccessToken(user));
+        JwtService.AccessPrincipal second = verifier.verify(jwtService.generateAccessToken(other));
+
+        Assertions.assertThat(second.authorities()).isSameAs(first.authorities());
+    }
+
+    @Test
+    void verify_shouldThrow_whenSignatureDoesNotMatch() {
+        String token = jwtService(Duration.ofMinutes(5)).generateAccessToken(user);
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char replaced = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + replaced + token.substring(signatureStart + 1);
+
+        Assertions.assertThatThrownBy(() -> verifier.verify(tampered))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class);
+    }
+
+    @Test
+    void verify_shouldThrow_whenTokenExpired() {
+        String token = jwtService(Duration.ofMinutes(-1)).generateAccessToken(user);
+
+        Assertions.assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class);
+    }
+
+    @Test
+    void verify_shouldThrow_whenTokenIsNotAccessToken() {
+        String token = jwtService(Duration.ofMinutes(5)).generateRefreshToken(user);
+
+        Assertions.assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class)
+                .hasMessage("Invalid token type");
+    }
+
+    @Test
+    void verify_shouldLeaveTokenToJwtParser_whenClaimIsUnknown() {
+        String token = Jwts.builder()
+                .subject("42")
+                .claim("type", "ACCESS")
+                .notBefore(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(KEY)
+                .compact();
+
+        Assertions.assertThat(verifier.verify(token)).isNull();
+        Assertions.assertThat(verifier.verify("not a token")).isNull();
+    }
+
+    private static JwtService jwtService(Duration expirationTime) {
+        JwtProperties properties = new JwtProperties();
+        properties.getSecret().setAccess(SECRET);
+        properties.getSecret().setRefresh(SECRET);
+        properties.getAccess().setExpirationTime(expirationTime);
+        properties.getRefresh().setExpirationTime(Duration.ofDays(1));
+        return new JwtService(properties, new SimpleMeterRegistry());
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheCoherenceProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CachePolicyProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository.CacheInvalidation;
+import com.keldorn.phenylalaninecalculatorapi.repository.ClusterLockRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationTailerTests {
+
+    private static final String CACHE_NAME = "foodPages";
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Mock
+    private ClusterLockRepository clusterLockRepository;
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
+    private CoherentCacheManager cacheManager;
+    private CacheCoherenceProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationTailer tailer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new CoherentCacheManager(new ConcurrentMapCacheManager(CACHE_NAME),
+                new CachePolicyProperties(), cacheInvalidationRepository, TransactionOperations.withoutTransaction(),
+                refreshExecutor, meterRegistry, true);
+        properties = new CacheCoherenceProperties();
+        when(cacheInvalidationRepository.findMaxId()).thenReturn(10L);
+        tailer = new CacheInvalidationTailer(cacheManager, cacheInvalidationRepository, clusterLockRepository,
+                properties, meterRegistry);
+        tailer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Test
+    void poll_shouldClearLocalCache_whenRemoteInvalidation() {
+        putCachedValue();
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(invalidation(11, "other-node")));
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get("key")).isNull();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(11);
+        Assertions.assertThat(meterRegistry.get("cache.coherence.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void poll_shouldEvictOnlyPublishedKey_whenRemoteInvalidationHasKey() {
+        cacheManager.getCache(CACHE_NAME).put(List.of(1L, 7L), "evicted");
+        cacheManager.getCache(CACHE_NAME).put(List.of(2L, 7L), "kept");
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(new CacheInvalidation(11, CACHE_NAME, "[L1,L7]", "other-node",
+                        Duration.ofMillis(5))));
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get(List.of(1L, 7L))).isNull();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get(List.of(2L, 7L))).isNotNull();
+    }
+
+    @Test
+    void poll_shouldKeepLocalCache_whenOwnInvalidation() {
+        putCachedValue();
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(invalidation(11, cacheManager.getNodeId())));
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get("key")).isNotNull();
+    }
+
+    @Test
+    void poll_shouldHoldHighWaterMark_whenLowerIdCommitsLater() {
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(invalidation(12, "other-node")))
+                .thenReturn(List.of(invalidation(11, "other-node"), invalidation(12, "other-node")));
+        tailer.poll();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(10);
+        putCachedValue();
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get("key")).isNull();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(12);
+    }
+
+    @Test
+    void poll_shouldHoldHighWaterMark_whenJumpIsLargerThanBatchSize() {
+        properties.setBatchSize(2);
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(invalidation(20, "other-node")))
+                .thenReturn(List.of(invalidation(15, "other-node"), invalidation(20, "other-node")))
+                .thenReturn(List.of(invalidation(11, "other-node"), invalidation(12, "other-node")));
+        tailer.poll();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(10);
+        Assertions.assertThat(meterRegistry.get("cache.coherence.pending.gaps").gauge().value()).isEqualTo(9);
+        putCachedValue();
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get("key")).isNull();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(10);
+        Assertions.assertThat(meterRegistry.get("cache.coherence.pending.gaps").gauge().value()).isEqualTo(8);
+        tailer.poll();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(12);
+    }
+
+    @Test
+    void poll_shouldSkipGap_whenGapTimeoutPassed() {
+        properties.setGapTimeout(Duration.ZERO);
+        when(cacheInvalidationRepository.findAfter(eq(10L), anyInt()))
+                .thenReturn(List.of(invalidation(12, "other-node")));
+        tailer.poll();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(12);
+    }
+
+    @Test
+    void poll_shouldWaitForLowerIds_whenRewoundToEarlierMark() {
+        when(cacheInvalidationRepository.findAfter(eq(5L), anyInt()))
+                .thenReturn(List.of(invalidation(7, "other-node")))
+                .thenReturn(List.of(invalidation(6, "other-node"), invalidation(7, "other-node")));
+        tailer.rewind(5);
+        tailer.poll();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(5);
+        putCachedValue();
+        tailer.poll();
+        Assertions.assertThat(cacheManager.getCache(CACHE_NAME).get("key")).isNull();
+        Assertions.assertThat(tailer.getHighWaterMark()).isEqualTo(7);
+    }
+
+    @Test
+    void cleanUp_shouldDeleteExpired_whenHoldingClusterLock() {
+        when(clusterLockRepository.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        tailer.cleanUp();
+        verify(cacheInvalidationRepository).deleteOlderThan(properties.getRetention());
+    }
+
+    @Test
+    void cleanUp_shouldSkip_whenAnotherNodeHoldsClusterLock() {
+        when(clusterLockRepository.runExclusively(anyString(), any())).thenReturn(false);
+        tailer.cleanUp();
+        verify(cacheInvalidationRepository, never()).deleteOlderThan(any());
+    }
+
+    private void putCachedValue() {
+        cacheManager.getCache(CACHE_NAME).put("key", "value");
+    }
+
+    private static CacheInvalidation invalidation(long id, String origin) {
+        return new CacheInvalidation(id, CACHE_NAME, null, origin, Duration.ofMillis(5));
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheCoherenceProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CachePolicyProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CacheSnapshotProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.CoherentCacheManager;
+import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.foodtype.FoodTypeResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.page.PageResponse;
+import com.keldorn.phenylalaninecalculatorapi.repository.CacheInvalidationRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotServiceTests {
+
+    private static final long HIGH_WATER_MARK = 42L;
+    private static final List<Long> FOOD_KEY = List.of(1L, 7L);
+    private static final FoodResponse FOOD = new FoodResponse(1L, "Apple", new BigDecimal("0.30"),
+            new BigDecimal("52.00"), new BigDecimal("10.00"), "fruit", 50, true);
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Mock
+    private ObjectProvider<CacheInvalidationTailer> cacheInvalidationTailer;
+
+    @Mock
+    private CacheInvalidationTailer tailer;
+
+    @TempDir
+    Path directory;
+
+    private CacheSnapshotProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheSnapshotProperties();
+        properties.setEnabled(true);
+        properties.setFile(directory.resolve("snapshots").resolve("cache-snapshot.bin"));
+        properties.setSigningKey(Base64.getEncoder().encodeToString(new byte[32]));
+    }
+
+    @Test
+    void restore_shouldPutBackWrittenEntries() throws IOException {
+        CoherentCacheManager before = cacheManager();
+        before.getCache("foods").put(FOOD_KEY, FOOD);
+        service(before).write(properties.getFile(), HIGH_WATER_MARK);
+        when(cacheInvalidationRepository.findCacheNamesAfter(HIGH_WATER_MARK)).thenReturn(Set.of());
+
+        CoherentCacheManager after = cacheManager();
+        service(after).restore(properties.getFile());
+
+        Assertions.assertThat(after.getCache("foods").get(List.of(1L, 7L), FoodResponse.class)).isEqualTo(FOOD);
+    }
+
+    @Test
+    void restore_shouldDropCachesInvalidatedSinceSnapshot() throws IOException {
+        CoherentCacheManager before = cacheManager();
+        FoodTypeResponse foodType = new FoodTypeResponse(3L, "fruit", 50, true);
+        before.getCache("foods").put(FOOD_KEY, FOOD);
+        before.getCache("foodTypes").put(List.of(3L, 7L), foodType);
+        service(before).write(properties.getFile(), HIGH_WATER_MARK);
+        when(cacheInvalidationRepository.findCacheNamesAfter(HIGH_WATER_MARK)).thenReturn(Set.of("foods"));
+
+        CoherentCacheManager after = cacheManager();
+        service(after).restore(properties.getFile());
+
+        Assertions.assertThat(after.getCache("foods").get(FOOD_KEY)).isNull();
+        Assertions.assertThat(after.getCache("foodTypes").get(List.of(3L, 7L), FoodTypeResponse.class))
+                .isEqualTo(foodType);
+    }
+
+    @Test
+    void restore_shouldRewindTailerToSnapshotMark() throws IOException {
+        CoherentCacheManager before = cacheManager();
+        before.getCache("foods").put(FOOD_KEY, FOOD);
+        service(before).write(properties.getFile(), HIGH_WATER_MARK);
+        when(cacheInvalidationTailer.getIfAvailable()).thenReturn(tailer);
+        when(cacheInvalidationRepository.findCacheNamesAfter(HIGH_WATER_MARK)).thenReturn(Set.of());
+
+        service(cacheManager()).restore(properties.getFile());
+
+        verify(tailer).rewind(HIGH_WATER_MARK);
+    }
+
+    @Test
+    void write_shouldCreateDirectoryForOwnerOnly() throws IOException {
+        Assumptions.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        service(cacheManager()).write(properties.getFile(), HIGH_WATER_MARK);
+        Assertions.assertThat(Files.getPosixFilePermissions(properties.getFile().getParent()))
+                .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+        Assertions.assertThat(Files.getPosixFilePermissions(properties.getFile()))
+                .isEqualTo(PosixFilePermissions.fromString("rw-------"));
+    }
+
+    @Test
+    void run_shouldDiscardSnapshot_whenSignatureDoesNotMatch() throws IOException {
+        CoherentCacheManager before = cacheManager();
+        before.getCache("foods").put(FOOD_KEY, FOOD);
+        service(before).write(properties.getFile(), HIGH_WATER_MARK);
+        byte[] bytes = Files.readAllBytes(properties.getFile());
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(properties.getFile(), bytes);
+        when(cacheInvalidationTailer.getIfAvailable()).thenReturn(tailer);
+        CoherentCacheManager after = cacheManager();
+
+        service(after).run(new DefaultApplicationArguments());
+
+        Assertions.assertThat(properties.getFile()).doesNotExist();
+        Assertions.assertThat(after.hottest("foods", 10)).isEmpty();
+        verifyNoInteractions(cacheInvalidationRepository, tailer);
+    }
+
+    @Test
+    void run_shouldDiscardSnapshotOfAnotherVersion() throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(payload))) {
+            out.writeInt(CacheSnapshotService.MAGIC);
+            out.writeInt(CacheSnapshotService.VERSION + 1);
+        }
+        CoherentCacheManager cacheManager = cacheManager();
+        CacheSnapshotService service = service(cacheManager);
+        byte[] bytes = payload.toByteArray();
+        Files.createDirectories(properties.getFile().getParent());
+        try (OutputStream out = Files.newOutputStream(properties.getFile())) {
+            out.write(service.sign(bytes, 0, bytes.length));
+            out.write(bytes);
+        }
+        when(cacheInvalidationTailer.getIfAvailable()).thenReturn(tailer);
+
+        service.run(new DefaultApplicationArguments());
+
+        Assertions.assertThat(properties.getFile()).doesNotExist();
+        Assertions.assertThat(cacheManager.hottest("foods", 10)).isEmpty();
+        verifyNoInteractions(cacheInvalidationRepository);
+    }
+
+    @Test
+    void shapeHash_shouldDiffer_whenFieldsDiffer() {
+        Assertions.assertThat(CacheSnapshotService.shapeHash(FoodResponse.class))
+                .isEqualTo(CacheSnapshotService.shapeHash(FoodResponse.class))
+                .isNotEqualTo(CacheSnapshotService.shapeHash(FoodTypeResponse.class));
+    }
+
+    @Test
+    void shapeHash_shouldCoverNestedDtos_soNestedShapeChangesAreDetected() {
+        String pageShape = CacheSnapshotService.shape(PagedFoodResponse.class);
+        Assertions.assertThat(pageShape)
+                .contains(CacheSnapshotService.shape(FoodResponse.class))
+                .contains(CacheSnapshotService.shape(PageResponse.class));
+    }
+
+    private CacheSnapshotService service(CoherentCacheManager cacheManager) {
+        return new CacheSnapshotService(properties, new CacheCoherenceProperties(), cacheManager,
+                cacheInvalidationRepository, cacheInvalidationTailer, new ObjectMapper());
+    }
+
+    private CoherentCacheManager cacheManager() {
+        return new CoherentCacheManager(new ConcurrentMapCacheManager("foods", "foodTypes"),
+                new CachePolicyProperties(), cacheInvalidationRepository, TransactionOperations.withoutTransaction(),
+                Executors.newSingleThreadExecutor(), new SimpleMeterRegistry(), true);
+    }
+
+}
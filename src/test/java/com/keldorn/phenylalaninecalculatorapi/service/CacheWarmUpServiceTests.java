@@ -0,0 +1,126 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.CacheWarmUpProperties;
+import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.HotKeyRepository.HotKey;
+import com.keldorn.phenylalaninecalculatorapi.repository.UserRepository;
+import com.keldorn.phenylalaninecalculatorapi.utils.UserContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpServiceTests {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private HotKeyRepository hotKeyRepository;
+
+    @Mock
+    private HotKeyService hotKeyService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FoodService foodService;
+
+    @Mock
+    private FoodTypeService foodTypeService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private Environment environment;
+
+    private CacheWarmUpProperties properties;
+    private CacheWarmUpService cacheWarmUpService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheWarmUpProperties();
+        properties.setReplayIterations(0);
+        cacheWarmUpService = new CacheWarmUpService(properties, hotKeyRepository, hotKeyService, userRepository,
+                foodService, foodTypeService, jwtService, environment);
+    }
+
+    @Test
+    void run_shouldLoadHotKeysAsTheirUsers() throws InterruptedException {
+        AtomicReference<Long> loadedAs = new AtomicReference<>();
+        when(hotKeyRepository.findHottest(anyInt())).thenReturn(List.of(
+                HotKey.page("foodPages", USER_ID, "protein=lt=2", "name,asc", 1, 50),
+                HotKey.entity("foodTypes", USER_ID, 3L)));
+        when(foodService.findAll(any(), any())).thenAnswer(_ -> {
+            loadedAs.set(UserContext.currentUserId());
+            return null;
+        });
+        cacheWarmUpService.run(null);
+        verify(foodService).findAll(
+                argThat(query -> "protein=lt=2".equals(query.getQuery()) && "name,asc".equals(query.getSort())),
+                argThat(page -> page.getPageNumber() == 1 && page.getPageSize() == 50));
+        verify(foodTypeService).findById(3L);
+        Assertions.assertThat(loadedAs.get()).isEqualTo(USER_ID);
+        Assertions.assertThat(UserContext.getOverride()).isNull();
+    }
+
+    @Test
+    void run_shouldContinue_whenHotKeyFails() throws InterruptedException {
+        when(hotKeyRepository.findHottest(anyInt())).thenReturn(List.of(
+                HotKey.entity("foods", USER_ID, 1L),
+                HotKey.page("foodTypePages", USER_ID, null, null, 0, 20)));
+        when(foodService.findById(1L)).thenThrow(new ResourceNotFoundException("Food not found"));
+        cacheWarmUpService.run(null);
+        verify(foodTypeService).findAll(argThat(page -> page.getPageNumber() == 0 && page.getPageSize() == 20));
+    }
+
+    @Test
+    void run_shouldInterruptWarmUp_whenTimeoutPasses() throws InterruptedException {
+        properties.setTimeout(Duration.ofMillis(50));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(hotKeyRepository.findHottest(anyInt())).thenReturn(List.of(
+                HotKey.entity("foods", USER_ID, 1L),
+                HotKey.entity("foods", USER_ID, 2L)));
+        when(foodService.findById(1L)).thenAnswer(_ -> {
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        cacheWarmUpService.run(null);
+        Assertions.assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(foodService, never()).findById(2L);
+    }
+
+    @Test
+    void run_shouldDoNothing_whenDisabled() throws InterruptedException {
+        properties.setEnabled(false);
+        cacheWarmUpService.run(null);
+        verifyNoInteractions(hotKeyRepository, foodService, foodTypeService);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.keldorn.phenylalaninecalculatorapi.config.FoodArchiveProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardDataSources;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodTypeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+@ExtendWith(MockitoExtension.class)
+class FoodArchiveServiceTests {
+
+    @Mock
+    private FoodRepository foodRepository;
+
+    @Mock
+    private FoodTypeRepository foodTypeRepository;
+
+    private FoodArchiveProperties properties;
+
+    private FoodArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FoodArchiveProperties();
+        archiveService = new FoodArchiveService(properties, foodRepository, foodTypeRepository,
+                new StaticListableBeanFactory().getBeanProvider(ShardDataSources.class));
+    }
+
+    @Test
+    void archive_shouldTombstoneFoodsBeforeFoodTypes() {
+        archiveService.archive();
+        InOrder inOrder = inOrder(foodRepository, foodTypeRepository);
+        inOrder.verify(foodRepository).copyDeletedToTombstone(any());
+        inOrder.verify(foodRepository).deleteTombstoned();
+        inOrder.verify(foodTypeRepository).copyDeletedToTombstone();
+        inOrder.verify(foodTypeRepository).deleteTombstoned();
+    }
+
+    @Test
+    void archive_shouldDoNothing_whenDisabled() {
+        properties.setEnabled(false);
+        archiveService.archive();
+        verifyNoInteractions(foodRepository, foodTypeRepository);
+    }
+
+}
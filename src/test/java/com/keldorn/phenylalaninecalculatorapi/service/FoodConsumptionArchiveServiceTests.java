@@ -0,0 +1,150 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.config.FoodConsumptionArchiveProperties;
+import com.keldorn.phenylalaninecalculatorapi.config.ShardDataSources;
+import com.keldorn.phenylalaninecalculatorapi.repository.ClusterLockRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionPartitionRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionPartitionRepository.Partition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+@ExtendWith(MockitoExtension.class)
+class FoodConsumptionArchiveServiceTests {
+
+    private static final long TO_DAYS_EPOCH_OFFSET = 719_528L;
+
+    @Mock
+    private FoodConsumptionPartitionRepository partitionRepository;
+
+    @Mock
+    private ClusterLockRepository clusterLockRepository;
+
+    private FoodConsumptionArchiveProperties properties;
+
+    private FoodConsumptionArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FoodConsumptionArchiveProperties();
+        properties.setHorizonMonths(2);
+        properties.setMonthsAhead(0);
+        archiveService = new FoodConsumptionArchiveService(properties, partitionRepository, clusterLockRepository,
+                new StaticListableBeanFactory().getBeanProvider(ShardDataSources.class));
+        lenient().when(clusterLockRepository.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return true;
+        });
+    }
+
+    @Test
+    void reachesArchive_shouldReturnTrue_onlyForRangesStartingBeforeCutoff() {
+        Instant cutoff = archiveService.getArchiveCutoff();
+        Assertions.assertThat(archiveService.reachesArchive(cutoff.minusSeconds(1))).isTrue();
+        Assertions.assertThat(archiveService.reachesArchive(cutoff)).isFalse();
+    }
+
+    @Test
+    void reachesArchive_shouldReturnFalse_whenDisabled() {
+        properties.setEnabled(false);
+        Assertions.assertThat(archiveService.reachesArchive(Instant.EPOCH)).isFalse();
+    }
+
+    @Test
+    void archive_shouldMovePartitionsOlderThanHorizon() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<Partition> partitions = new ArrayList<>();
+        for (int i = 4; i >= 0; i--) {
+            partitions.add(partition(current.minusMonths(i)));
+        }
+        partitions.add(new Partition(FoodConsumptionPartitionRepository.FUTURE_PARTITION, null));
+        when(partitionRepository.findPartitions()).thenReturn(partitions);
+        when(partitionRepository.isEmpty(anyString())).thenReturn(true);
+        archiveService.archive();
+        for (int i = 4; i >= 3; i--) {
+            String name = name(current.minusMonths(i));
+            verify(partitionRepository).moveToArchive(name);
+            verify(partitionRepository).dropPartition(name);
+        }
+        verify(partitionRepository, never()).moveToArchive(name(current.minusMonths(2)));
+        verify(partitionRepository, never()).dropPartition(name(current.minusMonths(2)));
+        verify(partitionRepository, never()).splitFuturePartition(anyString(), any());
+    }
+
+    @Test
+    void archive_shouldKeepPartition_whenRowsArrivedDuringMove() {
+        YearMonth old = YearMonth.now(ZoneOffset.UTC).minusMonths(3);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(partition(old),
+                new Partition(FoodConsumptionPartitionRepository.FUTURE_PARTITION, null)));
+        when(partitionRepository.isEmpty(name(old))).thenReturn(false);
+        archiveService.archive();
+        verify(partitionRepository).moveToArchive(name(old));
+        verify(partitionRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void archive_shouldFinishInterruptedMoveFirst() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                new Partition(FoodConsumptionPartitionRepository.FUTURE_PARTITION, null)));
+        archiveService.archive();
+        verify(partitionRepository).archiveStaging();
+    }
+
+    @Test
+    void archive_shouldCreateMissingFuturePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        properties.setMonthsAhead(1);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+                partition(current.minusMonths(1)),
+                new Partition(FoodConsumptionPartitionRepository.FUTURE_PARTITION, null)));
+        archiveService.archive();
+        verify(partitionRepository).splitFuturePartition(eq(name(current)), eq(current.plusMonths(1).atDay(1)));
+        verify(partitionRepository).splitFuturePartition(eq(name(current.plusMonths(1))),
+                eq(current.plusMonths(2).atDay(1)));
+    }
+
+    @Test
+    void archive_shouldSkip_whenAnotherInstanceHoldsTheLock() {
+        when(clusterLockRepository.runExclusively(anyString(), any())).thenReturn(false);
+        archiveService.archive();
+        verify(partitionRepository, never()).findPartitions();
+    }
+
+    @Test
+    void archive_shouldSkip_whenTableIsNotPartitioned() {
+        when(partitionRepository.findPartitions()).thenReturn(List.of());
+        archiveService.archive();
+        verify(partitionRepository, never()).moveToArchive(anyString());
+    }
+
+    private static Partition partition(YearMonth month) {
+        LocalDate upperBound = month.plusMonths(1).atDay(1);
+        return new Partition(name(month), upperBound.toEpochDay() + TO_DAYS_EPOCH_OFFSET);
+    }
+
+    private static String name(YearMonth month) {
+        return month.format(DateTimeFormatter.ofPattern("'p'yyyyMM"));
+    }
+
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.keldorn.phenylalaninecalculatorapi.config.ShardingProperties;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.Food;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.FoodConsumption;
 import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
@@ -18,6 +19,8 @@ import com.keldorn.phenylalaninecalculatorapi.exception.DailyIntakeCannotBeLower
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodConsumptionRepository;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository.FoodNutrients;
+import com.keldorn.phenylalaninecalculatorapi.repository.RecentConsumptionStore;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -32,6 +35,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -55,6 +59,15 @@ class FoodConsumptionServiceTests {
     @Mock
     private DailyIntakeService dailyIntakeService;
 
+    @Mock
+    private FoodConsumptionArchiveService foodConsumptionArchiveService;
+
+    @Mock
+    private RecentConsumptionStore recentConsumptionStore;
+
+    @Spy
+    private ShardTransactions shardTransactions = new ShardTransactions(null, new ShardingProperties());
+
     @InjectMocks
     private FoodConsumptionService foodConsumptionService;
 
@@ -69,9 +82,10 @@ class FoodConsumptionServiceTests {
         FoodConsumptionRequest request = new FoodConsumptionRequest(consumedAmount);
         User user = TestEntityFactory.user();
         Food food = TestEntityFactory.food(TestEntityFactory.foodType());
-        food.setPhenylalanine(foodPheContent);
         when(userService.getCurrentUserReference()).thenReturn(user);
-        when(foodReadService.findByIdOrThrow(foodId)).thenReturn(food);
+        when(foodReadService.findNutrientsByIdOrThrow(foodId))
+                .thenReturn(new FoodNutrients(foodPheContent, TestEntityFactory.DEFAULT_FOOD_NAME, false));
+        when(foodReadService.getReference(foodId)).thenReturn(food);
         when(foodConsumptionRepository.save(any(FoodConsumption.class)))
                 .thenAnswer(i -> i.getArguments()[0]);
         FoodConsumptionResponse response = foodConsumptionService.save(foodId, request, TestEntityFactory.UTC_TIMEZONE);
@@ -82,13 +96,17 @@ class FoodConsumptionServiceTests {
         Assertions.assertThat(savedEntity.getPhenylalanineAmount()).isEqualByComparingTo(expectedCalculatedPhe);
         Assertions.assertThat(savedEntity.getAmount()).isEqualByComparingTo(consumedAmount);
         Assertions.assertThat(savedEntity.getConsumedAt()).isNotNull();
+        Assertions.assertThat(savedEntity.getFood()).isSameAs(food);
+        Assertions.assertThat(savedEntity.getFoodName()).isEqualTo(TestEntityFactory.DEFAULT_FOOD_NAME);
+        Assertions.assertThat(savedEntity.getFoodPhenylalanine()).isEqualByComparingTo(foodPheContent);
+        Assertions.assertThat(response.foodName()).isEqualTo(TestEntityFactory.DEFAULT_FOOD_NAME);
         doAssertionsCheckOnResponse(response, savedEntity);
     }
 
     @Test
     void save_shouldThrowExceptionAndSaveNothing_whenResourceNotFound() {
         FoodConsumptionRequest request = new FoodConsumptionRequest(BigDecimal.TEN);
-        when(foodReadService.findByIdOrThrow(foodConsumptionId))
+        when(foodReadService.findNutrientsByIdOrThrow(foodConsumptionId))
                 .thenThrow(ResourceNotFoundException.class);
         Assertions.assertThatThrownBy(
                         () -> foodConsumptionService.save(foodConsumptionId, request, TestEntityFactory.UTC_TIMEZONE))
@@ -97,11 +115,24 @@ class FoodConsumptionServiceTests {
         verify(foodConsumptionRepository, never()).save(any());
     }
 
+    @Test
+    void save_shouldThrowExceptionAndSaveNothing_whenFoodDeleted() {
+        FoodConsumptionRequest request = new FoodConsumptionRequest(BigDecimal.TEN);
+        when(foodReadService.findNutrientsByIdOrThrow(foodConsumptionId))
+                .thenReturn(new FoodNutrients(BigDecimal.TEN, TestEntityFactory.DEFAULT_FOOD_NAME, true));
+        Assertions.assertThatThrownBy(
+                        () -> foodConsumptionService.save(foodConsumptionId, request, TestEntityFactory.UTC_TIMEZONE))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(dailyIntakeService, never()).addAmount(any(), any());
+        verify(foodConsumptionRepository, never()).save(any());
+    }
+
     @Test
     void save_shouldThrowExceptionAndSaveNothing_whenDailyIntakeFailsDueToNegativeConsumption() {
         Long foodId = 1L;
         FoodConsumptionRequest request = new FoodConsumptionRequest(BigDecimal.valueOf(-100));
-        when(foodReadService.findByIdOrThrow(foodId)).thenReturn(TestEntityFactory.food(TestEntityFactory.foodType()));
+        when(foodReadService.findNutrientsByIdOrThrow(foodId))
+                .thenReturn(new FoodNutrients(BigDecimal.TEN, TestEntityFactory.DEFAULT_FOOD_NAME, false));
         doThrow(DailyIntakeCannotBeLowerThanZeroException.class)
                 .when(dailyIntakeService).addAmount(any(), any());
         Assertions.assertThatThrownBy(
@@ -144,6 +175,51 @@ class FoodConsumptionServiceTests {
         Assertions.assertThat(response.getContent()).isEmpty();
     }
 
+    @Test
+    void findAllByDate_shouldServeRecentPage_withoutQueryingRepository() {
+        PagedFoodConsumptionResponse recentPage = PagedFoodConsumptionResponse.builder()
+                .content(List.of())
+                .build();
+        when(userService.getCurrentUserId()).thenReturn(1L);
+        when(recentConsumptionStore.findPage(eq(1L), any(Instant.class), any(Instant.class), any(),
+                any(Pageable.class)))
+                .thenReturn(Optional.of(recentPage));
+        PagedFoodConsumptionResponse response =
+                foodConsumptionService.findAllByDate(TestEntityFactory.TEST_DATE, new PaginationRequest(0, 20), null);
+        Assertions.assertThat(response).isSameAs(recentPage);
+        verify(foodConsumptionRepository, never()).findAllByUserAndConsumedAtBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void findAllByDate_shouldReadArchive_whenRangeStartsBeforeCutoff() {
+        FoodConsumption foodConsumption = TestEntityFactory.foodConsumption(
+                TestEntityFactory.user(),
+                TestEntityFactory.food(TestEntityFactory.foodType()),
+                TestEntityFactory.CONSUMED_AT
+        );
+        when(userService.getCurrentUserId()).thenReturn(1L);
+        when(foodConsumptionArchiveService.reachesArchive(any(Instant.class))).thenReturn(true);
+        when(foodConsumptionRepository.findAllWithArchivedByUserAndConsumedAtBetween(any(Long.class), any(Instant.class),
+                any(Instant.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(foodConsumption)));
+        PagedFoodConsumptionResponse response =
+                foodConsumptionService.findAllByDate(TestEntityFactory.TEST_DATE, new PaginationRequest(0, 20), null);
+        Assertions.assertThat(response.getContent()).hasSize(1);
+        verify(foodConsumptionRepository, never()).findAllByUserAndConsumedAtBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void findAllByDate_shouldReadHotTableOnly_whenRangeStartsAfterCutoff() {
+        when(userService.getCurrentUserId()).thenReturn(1L);
+        when(foodConsumptionArchiveService.reachesArchive(any(Instant.class))).thenReturn(false);
+        when(foodConsumptionRepository.findAllByUserAndConsumedAtBetween(any(Long.class), any(Instant.class),
+                any(Instant.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+        foodConsumptionService.findAllByDate(TestEntityFactory.TEST_DATE, new PaginationRequest(0, 20), null);
+        verify(foodConsumptionRepository, never())
+                .findAllWithArchivedByUserAndConsumedAtBetween(any(), any(), any(), any());
+    }
+
     @Test
     void update_shouldReturnFoodConsumptionResponse_whenFoodConsumptionExists() {
         BigDecimal foodPheContent = BigDecimal.valueOf(200);
@@ -161,7 +237,7 @@ class FoodConsumptionServiceTests {
         );
         existingEntity.setAmount(oldAmount);
         existingEntity.setPhenylalanineAmount(oldPheAmount);
-        existingEntity.getFood().setPhenylalanine(foodPheContent);
+        existingEntity.setFoodPhenylalanine(foodPheContent);
         when(userService.getCurrentUserId()).thenReturn(user.getUserId());
         when(foodConsumptionRepository.findByIdAndUser_UserId(foodConsumptionId, user.getUserId())).thenReturn(
                 Optional.of(existingEntity));
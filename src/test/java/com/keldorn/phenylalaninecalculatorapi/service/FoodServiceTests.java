@@ -17,6 +17,7 @@ import com.keldorn.phenylalaninecalculatorapi.dto.params.PaginationRequest;
 import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
 import com.keldorn.phenylalaninecalculatorapi.exception.ResourceNotFoundException;
 import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.repository.FoodCatalogStore;
 import com.keldorn.phenylalaninecalculatorapi.repository.FoodRepository;
 
 import java.math.BigDecimal;
@@ -53,6 +54,12 @@ class FoodServiceTests {
     @Mock
     private UserService userService;
 
+    @Mock
+    private QueryCostService queryCostService;
+
+    @Mock
+    private FoodCatalogStore foodCatalogStore;
+
     @InjectMocks
     private FoodService foodService;
 
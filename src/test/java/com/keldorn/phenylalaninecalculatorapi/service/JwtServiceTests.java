@@ -12,6 +12,7 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class JwtServiceTests {
 
@@ -22,9 +23,11 @@ class JwtServiceTests {
     private static final Duration EXPIRATION_TIME = Duration.ofDays(1);
 
     private final JwtService jwtServiceA =
-            new JwtService(createJwtProperties(SECRET_A, SECRET_A, EXPIRATION_TIME, EXPIRATION_TIME));
+            new JwtService(createJwtProperties(SECRET_A, SECRET_A, EXPIRATION_TIME, EXPIRATION_TIME),
+                    new SimpleMeterRegistry());
     private final JwtService jwtServiceB =
-            new JwtService(createJwtProperties(SECRET_B, SECRET_B, EXPIRATION_TIME, EXPIRATION_TIME));
+            new JwtService(createJwtProperties(SECRET_B, SECRET_B, EXPIRATION_TIME, EXPIRATION_TIME),
+                    new SimpleMeterRegistry());
 
     private final String testUsername = "Test User";
     private final Long testUserId = 1L;
@@ -78,4 +81,30 @@ class JwtServiceTests {
 
     }
 
+    @Test
+    void verifyAccessToken_shouldReturnSamePrincipal_whenTokenReused() {
+        String token = jwtServiceA.generateAccessToken(testUser);
+        JwtService.AccessPrincipal principal = jwtServiceA.verifyAccessToken(token);
+        Assertions.assertThat(principal.userId()).isEqualTo(testUserId);
+        Assertions.assertThat(principal.username()).isEqualTo(testUsername);
+        Assertions.assertThat(principal.authorities()).hasSize(1);
+        Assertions.assertThat(jwtServiceA.verifyAccessToken(token)).isSameAs(principal);
+    }
+
+    @Test
+    void verifyAccessToken_shouldThrow_whenVerifiedTokenIsTampered() {
+        String token = jwtServiceA.generateAccessToken(testUser);
+        jwtServiceA.verifyAccessToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        Assertions.assertThatThrownBy(() -> jwtServiceA.verifyAccessToken(tampered))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class);
+    }
+
+    @Test
+    void verifyAccessToken_shouldThrow_whenRefreshTokenGiven() {
+        String token = jwtServiceA.generateRefreshToken(testUser);
+        Assertions.assertThatThrownBy(() -> jwtServiceA.verifyAccessToken(token))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class);
+    }
+
 }
@@ -0,0 +1,70 @@
+package com.keldorn.phenylalaninecalculatorapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.RefreshToken;
+import com.keldorn.phenylalaninecalculatorapi.domain.entity.User;
+import com.keldorn.phenylalaninecalculatorapi.exception.InvalidJwtTokenReceivedException;
+import com.keldorn.phenylalaninecalculatorapi.factory.TestEntityFactory;
+import com.keldorn.phenylalaninecalculatorapi.repository.RefreshTokenRepository;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTests {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ObjectProvider<RefreshTokenService> selfProvider;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void save_shouldStoreDigestOfToken() {
+        User user = TestEntityFactory.user();
+        when(jwtService.generateRefreshToken(user)).thenReturn(TOKEN);
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        String token = refreshTokenService.save(user);
+
+        verify(refreshTokenRepository).save(captor.capture());
+        Assertions.assertThat(token).isEqualTo(TOKEN);
+        Assertions.assertThat(captor.getValue().getTokenHash()).hasSize(32).isEqualTo(RefreshToken.hash(TOKEN));
+    }
+
+    @Test
+    void refresh_shouldThrow_whenDigestIsUnknown() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> refreshTokenService.refresh(TOKEN, TestEntityFactory.user()))
+                .isInstanceOf(InvalidJwtTokenReceivedException.class);
+        verify(refreshTokenRepository).findByTokenHash(RefreshToken.hash(TOKEN));
+    }
+
+    @Test
+    void deleteByToken_shouldDeleteByDigest() {
+        refreshTokenService.deleteByToken(TOKEN);
+
+        verify(refreshTokenRepository).deleteByTokenHash(RefreshToken.hash(TOKEN));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import com.keldorn.phenylalaninecalculatorapi.dto.food.FoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.food.PagedFoodResponse;
+import com.keldorn.phenylalaninecalculatorapi.dto.page.PageResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RetainedSizeEstimatorTests {
+
+    @Test
+    void estimate_shouldSizeStringsByEncoding() {
+        Assertions.assertThat(RetainedSizeEstimator.estimate("abcd"))
+                .isEqualTo(RetainedSizeEstimator.STRING + RetainedSizeEstimator.align(
+                        RetainedSizeEstimator.ARRAY_HEADER + 4));
+        Assertions.assertThat(RetainedSizeEstimator.estimate("őőőő"))
+                .isEqualTo(RetainedSizeEstimator.STRING + RetainedSizeEstimator.align(
+                        RetainedSizeEstimator.ARRAY_HEADER + 8));
+    }
+
+    @Test
+    void estimate_shouldGrowWithPageContent() {
+        long small = RetainedSizeEstimator.estimate(page(1));
+        long large = RetainedSizeEstimator.estimate(page(100));
+        Assertions.assertThat(large).isGreaterThan(50 * small);
+    }
+
+    @Test
+    void estimate_shouldCountSharedObjectsOnce() {
+        String name = "shared food name";
+        long single = RetainedSizeEstimator.estimate(List.of(name));
+        long twice = RetainedSizeEstimator.estimate(List.of(name, name));
+        Assertions.assertThat(twice - single).isLessThan(RetainedSizeEstimator.estimate(name));
+    }
+
+    private static PagedFoodResponse page(int size) {
+        List<FoodResponse> content = IntStream.range(0, size)
+                .mapToObj(i -> new FoodResponse((long) i, "food " + i, BigDecimal.valueOf(i, 2),
+                        BigDecimal.valueOf(i * 3L, 2), BigDecimal.valueOf(i * 7L, 2), "type " + i, 1, true))
+                .toList();
+        return PagedFoodResponse.builder()
+                .content(content)
+                .page(new PageResponse(size, 0, size, 1))
+                .build();
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import com.keldorn.phenylalaninecalculatorapi.dto.params.QueryRequest;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RsqlCostEstimatorTests {
+
+    private static final Map<String, String> PROPERTY_MAP = Map.of("id", "id", "protein", "protein",
+            "username", "user.username");
+    private static final Set<String> INDEXED_PATHS = Set.of("id");
+
+    @Test
+    void estimate_shouldScoreIndexedEqualityLowest() {
+        Assertions.assertThat(RsqlCostEstimator.estimate("id==1", null, PROPERTY_MAP, INDEXED_PATHS))
+                .isEqualTo(RsqlCostEstimator.INDEXED_COST);
+        Assertions.assertThat(RsqlCostEstimator.estimate("protein==1", null, PROPERTY_MAP, INDEXED_PATHS))
+                .isEqualTo(RsqlCostEstimator.SCAN_COST);
+    }
+
+    @Test
+    void estimate_shouldPenalizeWildcardsJoinsAndOrBranches() {
+        Assertions.assertThat(RsqlCostEstimator.estimate("username=ilike=bob", null, PROPERTY_MAP, INDEXED_PATHS))
+                .isEqualTo(RsqlCostEstimator.SCAN_COST + RsqlCostEstimator.WILDCARD_SCAN_COST
+                        + RsqlCostEstimator.JOIN_COST);
+        Assertions.assertThat(RsqlCostEstimator.estimate("id==1,id==2", null, PROPERTY_MAP, INDEXED_PATHS))
+                .isEqualTo(2 * RsqlCostEstimator.INDEXED_COST + RsqlCostEstimator.OR_BRANCH_COST);
+    }
+
+    @Test
+    void estimate_shouldScoreSortOnJoinedField() {
+        Assertions.assertThat(RsqlCostEstimator.estimate(null, "username,asc", PROPERTY_MAP, INDEXED_PATHS))
+                .isEqualTo(RsqlCostEstimator.SORT_SCAN_COST + RsqlCostEstimator.JOIN_COST);
+        Assertions.assertThat(RsqlCostEstimator.estimate(null, "id,desc", PROPERTY_MAP, INDEXED_PATHS)).isZero();
+    }
+
+    @Test
+    void estimateCost_shouldTreatNamePrefixSearchAsIndexed() {
+        QueryRequest prefix = QueryRequest.builder().query("name=='app*'").sort("id,asc").build();
+        QueryRequest infix = QueryRequest.builder().query("name=ilike='app'").sort("id,asc").build();
+        Assertions.assertThat(FoodQueryParamsUtil.estimateCost(prefix))
+                .isLessThan(FoodQueryParamsUtil.estimateCost(infix));
+    }
+
+}
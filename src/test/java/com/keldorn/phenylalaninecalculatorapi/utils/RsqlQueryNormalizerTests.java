@@ -0,0 +1,45 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RsqlQueryNormalizerTests {
+
+    private static final Map<String, String> NORMALIZED_SELECTORS = Map.of("name", "nameNormalized");
+
+    @Test
+    void normalize_shouldUseNormalizedSelector_whenPrefixPattern() {
+        Assertions.assertThat(RsqlQueryNormalizer.normalize("name=='Crème*'", NORMALIZED_SELECTORS))
+                .isEqualTo("nameNormalized=='creme*'");
+    }
+
+    @Test
+    void normalize_shouldKeepSelector_whenInfixPattern() {
+        Assertions.assertThat(RsqlQueryNormalizer.normalize("name=='*app*'", NORMALIZED_SELECTORS))
+                .isEqualTo("name=='*app*'");
+    }
+
+    @Test
+    void normalize_shouldKeepIlike_whenPrefixPattern() {
+        Assertions.assertThat(RsqlQueryNormalizer.normalize("name=ilike='app*'", NORMALIZED_SELECTORS))
+                .isEqualTo("name=ilike='app*'");
+        Assertions.assertThat(RsqlQueryNormalizer.normalize("name=ilike=app", NORMALIZED_SELECTORS))
+                .isEqualTo("name=ilike='app'");
+    }
+
+    @Test
+    void normalize_shouldProduceSameQuery_whenOperandsAreReordered() {
+        Assertions.assertThat(RsqlQueryNormalizer.normalize("protein=lt=2;calories=gt=1", NORMALIZED_SELECTORS))
+                .isEqualTo(RsqlQueryNormalizer.normalize("calories=gt=1;protein=lt=2", NORMALIZED_SELECTORS));
+    }
+
+    @Test
+    void normalize_shouldPreserveLogicalStructure() {
+        Assertions.assertThat(RsqlQueryNormalizer.normalize(
+                        "name=='app*' and (protein=lt=2 or id=in=(1,2))", NORMALIZED_SELECTORS))
+                .isEqualTo("((id=in=('1','2'),protein=lt='2');nameNormalized=='app*')");
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.keldorn.phenylalaninecalculatorapi.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementCollector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> updates(String table) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("update " + table + " "))
+                .toList();
+    }
+
+    public static List<String> selects(String table) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select ") && sql.toLowerCase().contains(" " + table + " "))
+                .toList();
+    }
+
+}
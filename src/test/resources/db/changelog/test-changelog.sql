@@ -41,11 +41,22 @@ VALUES ('apple3', .26, 52, 2, 1, 2.60, false);
 -- Test Food Consumption
 -- changeset Patai Zoltán:load-test-food-consumption
 -- Loads food consumption
-INSERT INTO food_consumption (amount, phenylalanine_amount, consumed_at, food_id, user_id)
-VALUES (10, 10, '2026-01-01T00:00', 1, 1);
+INSERT INTO food_consumption (amount, phenylalanine_amount, consumed_at, food_id, food_name, food_phenylalanine, user_id)
+VALUES (10, 10, '2026-01-01T00:00', 1, 'testFood', 10, 1);
 
 -- Test Daily Intake
 -- changeset Patai Zoltán:load-test-daily-intake
 -- Loads daily intake
 INSERT INTO daily_intake (date, total_phenylalanine, user_id)
-VALUES ('2026-01-01', 10, 1)
\ No newline at end of file
+VALUES ('2026-01-01', 10, 1);
+
+-- Test Id Generator
+-- changeset Patai Zoltán:sync-test-id-generator
+-- Moves the pooled id generators past the loaded test data
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(food_id), 0) + 1 FROM food) WHERE sequence_name = 'food';
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(food_consumption_id), 0) + 1 FROM food_consumption)
+WHERE sequence_name = 'food_consumption';
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(daily_intake_id), 0) + 1 FROM daily_intake)
+WHERE sequence_name = 'daily_intake';
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(token_id), 0) + 1 FROM refresh_tokens)
+WHERE sequence_name = 'refresh_tokens';
@@ -3,9 +3,12 @@ SET FOREIGN_KEY_CHECKS = 0;
 TRUNCATE TABLE refresh_tokens;
 TRUNCATE TABLE user_roles;
 TRUNCATE TABLE food_consumption;
+TRUNCATE TABLE food_consumption_archive;
 TRUNCATE TABLE daily_intake;
 TRUNCATE TABLE food;
+TRUNCATE TABLE food_tombstone;
 TRUNCATE TABLE food_type;
+TRUNCATE TABLE food_type_tombstone;
 TRUNCATE TABLE users;
 
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file